@@ -0,0 +1,78 @@
+package benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import model.AddToCartRequest;
+import model.NewProduct;
+import model.UpdatedProduct;
+import model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация моделей запросов в JSON байты закэшированными {@link ObjectWriter},
+ * как это делает {@code BaseTest}, в сравнении с созданием нового {@link ObjectMapper} на каждый вызов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelSerializationBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private User user;
+    private NewProduct newProduct;
+    private UpdatedProduct updatedProduct;
+    private AddToCartRequest addToCartRequest;
+
+    private ObjectWriter userWriter;
+    private ObjectWriter newProductWriter;
+    private ObjectWriter updatedProductWriter;
+    private ObjectWriter addToCartRequestWriter;
+
+    @Setup
+    public void setup() {
+        user = new User("user1712345678", "password");
+        newProduct = new NewProduct("New Product", "Electronics", 12.99, 5);
+        updatedProduct = new UpdatedProduct("Updated Product Name", "Electronics", 15.99, 8);
+        addToCartRequest = new AddToCartRequest(1, 2);
+
+        userWriter = MAPPER.writerFor(User.class);
+        newProductWriter = MAPPER.writerFor(NewProduct.class);
+        updatedProductWriter = MAPPER.writerFor(UpdatedProduct.class);
+        addToCartRequestWriter = MAPPER.writerFor(AddToCartRequest.class);
+    }
+
+    @Benchmark
+    public byte[] user() throws JsonProcessingException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] userWithNewMapper() throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] newProduct() throws JsonProcessingException {
+        return newProductWriter.writeValueAsBytes(newProduct);
+    }
+
+    @Benchmark
+    public byte[] updatedProduct() throws JsonProcessingException {
+        return updatedProductWriter.writeValueAsBytes(updatedProduct);
+    }
+
+    @Benchmark
+    public byte[] addToCartRequest() throws JsonProcessingException {
+        return addToCartRequestWriter.writeValueAsBytes(addToCartRequest);
+    }
+}
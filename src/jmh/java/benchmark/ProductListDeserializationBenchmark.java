@@ -0,0 +1,137 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.common.mapper.TypeRef;
+import io.restassured.response.Response;
+import model.Product;
+import model.ShoppingCartResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import validation.ProductTable;
+import validation.ResponseSchemas;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Десериализация ответов {@code GET /products} и {@code GET /cart} разного размера четырьмя способами:
+ * {@code jsonPath().getList(...)}, {@code response.as(...)}, потоковым чтением через Jackson {@link ObjectReader}
+ * и в колоночную {@link ProductTable} с массовыми проверками, а также проверка тех же ответов по контрактам
+ * {@link ResponseSchemas} без разбора в объекты.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductListDeserializationBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader PRODUCT_READER = MAPPER.readerFor(Product.class);
+    private static final ObjectReader CART_READER = MAPPER.readerFor(ShoppingCartResponse.class);
+
+    @Param({"1", "100", "10000", "100000"})
+    private int size;
+
+    private byte[] productsJson;
+    private byte[] cartJson;
+    private Response productsResponse;
+    private Response cartResponse;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            products.add(new Product(i, "Product " + i, "Category " + random.nextInt(20),
+                    1 + random.nextInt(100_000) / 100.0, random.nextInt(30), 1 + random.nextInt(5)));
+        }
+        Map<String, Object> cart = new LinkedHashMap<>();
+        cart.put("cart", products);
+        cart.put("total_price", products.stream().mapToDouble(p -> p.getPrice() * p.getQuantity()).sum());
+        cart.put("total_discount", 0.0);
+
+        productsJson = MAPPER.writeValueAsBytes(products);
+        cartJson = MAPPER.writeValueAsBytes(cart);
+        productsResponse = response(productsJson);
+        cartResponse = response(cartJson);
+    }
+
+    private static Response response(byte[] body) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+
+    @Benchmark
+    public List<Product> productsJsonPath() {
+        return productsResponse.jsonPath().getList("", Product.class);
+    }
+
+    @Benchmark
+    public List<Product> productsResponseAs() {
+        return productsResponse.as(new TypeRef<List<Product>>() {});
+    }
+
+    @Benchmark
+    public void productsJacksonStreaming(Blackhole blackhole) throws IOException {
+        try (MappingIterator<Product> iterator = PRODUCT_READER.readValues(productsJson)) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean productsTable() throws IOException {
+        ProductTable table = ProductTable.readList(new ByteArrayInputStream(productsJson));
+        return table.allIdsPositive() && table.allPricesPositive();
+    }
+
+    @Benchmark
+    public String productsSchema() {
+        return ResponseSchemas.PRODUCT_LIST.validate(productsJson);
+    }
+
+    @Benchmark
+    public ShoppingCartResponse cartJsonPath() {
+        return cartResponse.jsonPath().getObject("", ShoppingCartResponse.class);
+    }
+
+    @Benchmark
+    public ShoppingCartResponse cartResponseAs() {
+        return cartResponse.as(ShoppingCartResponse.class);
+    }
+
+    @Benchmark
+    public ShoppingCartResponse cartJacksonReader() throws IOException {
+        return CART_READER.readValue(cartJson);
+    }
+
+    @Benchmark
+    public boolean cartTable() throws IOException {
+        ProductTable.Cart cart = ProductTable.readCart(new ByteArrayInputStream(cartJson));
+        return cart.getLines().allPricesPositive() && cart.totalPriceMatches(0.01 * size);
+    }
+
+    @Benchmark
+    public String cartSchema() {
+        return ResponseSchemas.CART.validate(cartJson);
+    }
+}
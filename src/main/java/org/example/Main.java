@@ -1,19 +1,183 @@
 package org.example;
 
-// Press Shift twice to open the Search Everywhere dialog and type `show whitespaces`,
-// then press Enter. You can now see whitespace characters in your code.
+import org.example.scenario.LoadCoordinator;
+import org.example.scenario.LoadWorker;
+import org.example.scenario.ScenarioCompiler;
+import org.example.scenario.ScenarioRunner;
+import org.example.scenario.StepGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Консольный запуск нагрузки по декларативному сценарию, см. {@link ScenarioCompiler}.
+ * Собирается в исполняемый jar ({@code mvn package}) и запускается без TestNG и Maven:
+ * <pre>{@code
+ * java -jar ApiTests-1.0-SNAPSHOT-jar-with-dependencies.jar scenario.json [--base-uri URI] [--users N]
+ *      [--duration SECONDS] [--connect-timeout-millis N] [--request-timeout-millis N] [--workers N] [--dry-run]
+ * }</pre>
+ * Параметры командной строки переопределяют значения из сценария; {@code --dry-run} только компилирует сценарий
+ * и печатает граф шагов. С {@code --workers N} пользователи делятся между N дочерними JVM, а отчет строится
+ * по гистограммам, слитым {@link LoadCoordinator}; служебный {@code --worker-port} запускает такой воркер.
+ * Код выхода: 0 — прогон успешен, 1 — доля ошибок превысила {@code maxErrorRate} сценария,
+ * 2 — некорректные аргументы или сценарий, 3 — воркер не завершил прогон.
+ */
 public class Main {
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_ERROR_RATE_EXCEEDED = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final int EXIT_WORKER_FAILED = 3;
+
+    private static final String USAGE = "Usage: java -jar <load.jar> scenario.json [--base-uri URI] [--users N] "
+            + "[--duration SECONDS] [--connect-timeout-millis N] [--request-timeout-millis N] [--workers N] [--dry-run]";
+
     public static void main(String[] args) {
-        // Press Alt+Enter with your caret at the highlighted text to see how
-        // IntelliJ IDEA suggests fixing it.
-        System.out.printf("Hello and welcome!");
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        Path scenarioFile = null;
+        String baseUri = null;
+        Integer users = null;
+        Duration duration = null;
+        Duration connectTimeout = Duration.ofSeconds(5);
+        Duration requestTimeout = Duration.ofSeconds(30);
+        int workers = 1;
+        Integer workerPort = null;
+        boolean dryRun = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i].toLowerCase(Locale.ROOT)) {
+                    case "--base-uri" -> baseUri = value(args, ++i);
+                    case "--users" -> users = positive(value(args, ++i), "--users");
+                    case "--duration" -> duration = Duration.ofSeconds(positive(value(args, ++i), "--duration"));
+                    case "--connect-timeout-millis" ->
+                            connectTimeout = Duration.ofMillis(positive(value(args, ++i), "--connect-timeout-millis"));
+                    case "--request-timeout-millis" ->
+                            requestTimeout = Duration.ofMillis(positive(value(args, ++i), "--request-timeout-millis"));
+                    case "--workers" -> workers = positive(value(args, ++i), "--workers");
+                    case "--worker-port" -> workerPort = positive(value(args, ++i), "--worker-port");
+                    case "--dry-run" -> dryRun = true;
+                    case "-h", "--help" -> {
+                        System.out.println(USAGE);
+                        return EXIT_OK;
+                    }
+                    default -> {
+                        if (args[i].startsWith("--") || scenarioFile != null) {
+                            throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                        }
+                        scenarioFile = Path.of(args[i]);
+                    }
+                }
+            }
+            if (scenarioFile == null) {
+                throw new IllegalArgumentException("Scenario file is required");
+            }
+            if (!Files.isRegularFile(scenarioFile)) {
+                throw new IllegalArgumentException("Scenario file not found: " + scenarioFile);
+            }
+
+            StepGraph graph;
+            try {
+                graph = ScenarioCompiler.compile(scenarioFile);
+            } catch (IOException e) {
+                System.err.println("Cannot read scenario: " + e.getMessage());
+                return EXIT_USAGE;
+            }
+            if (workerPort == null) {
+                System.out.print(graph.describe());
+            }
+            if (dryRun) {
+                return EXIT_OK;
+            }
+            String target = baseUri != null ? baseUri : graph.getBaseUri();
+            if (target == null) {
+                throw new IllegalArgumentException("Base URI is not set in the scenario, pass --base-uri");
+            }
+            int effectiveUsers = users != null ? users : graph.getUsers();
+            Duration effectiveDuration = duration != null ? duration : graph.getDuration();
+            ScenarioRunner runner = new ScenarioRunner(graph, target, effectiveUsers, effectiveDuration,
+                    connectTimeout, requestTimeout);
+            if (workerPort != null) {
+                LoadWorker.run(runner, graph, workerPort);
+                return EXIT_OK;
+            }
 
-        // Press Shift+F10 or click the green arrow button in the gutter to run the code.
-        for (int i = 1; i <= 5; i++) {
+            ScenarioRunner.Result result;
+            List<String> failures = List.of();
+            if (workers > 1) {
+                System.out.printf("Running %d users in %d workers for %d s against %s%n", effectiveUsers, workers,
+                        effectiveDuration.toSeconds(), target);
+                LoadCoordinator coordinator = new LoadCoordinator(graph, workers, effectiveUsers,
+                        workerCommand(scenarioFile, target, effectiveDuration, connectTimeout, requestTimeout));
+                result = coordinator.run();
+                failures = coordinator.getFailures();
+            } else {
+                System.out.printf("Running %d users for %d s against %s%n", effectiveUsers,
+                        effectiveDuration.toSeconds(), target);
+                result = runner.run();
+            }
+            System.out.print(result.report());
+            if (!failures.isEmpty()) {
+                failures.forEach(failure -> System.out.println("Worker failed: " + failure));
+                return EXIT_WORKER_FAILED;
+            }
+            if (result.getStats().errorRate() > graph.getMaxErrorRate()) {
+                System.out.printf("Error rate %.2f%% exceeds maxErrorRate %.2f%%%n",
+                        result.getStats().errorRate() * 100, graph.getMaxErrorRate() * 100);
+                return EXIT_ERROR_RATE_EXCEEDED;
+            }
+            return EXIT_OK;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (IOException e) {
+            System.err.println("Distributed run failed: " + e.getMessage());
+            return EXIT_WORKER_FAILED;
+        }
+    }
+
+    /**
+     * Команда запуска воркера: та же JVM и classpath, что у координатора, и те же параметры прогона.
+     */
+    private static List<String> workerCommand(Path scenarioFile, String baseUri, Duration duration,
+                                              Duration connectTimeout, Duration requestTimeout) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.add(scenarioFile.toAbsolutePath().toString());
+        command.addAll(List.of("--base-uri", baseUri,
+                "--duration", String.valueOf(duration.toSeconds()),
+                "--connect-timeout-millis", String.valueOf(connectTimeout.toMillis()),
+                "--request-timeout-millis", String.valueOf(requestTimeout.toMillis())));
+        return command;
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
 
-            // Press Shift+F9 to start debugging your code. We have set one breakpoint
-            // for you, but you can always add more by pressing Ctrl+F8.
-            System.out.println("i = " + i);
+    private static int positive(String value, String option) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Сообщение ниже
         }
+        throw new IllegalArgumentException(option + " must be a positive integer, got " + value);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package org.example.scenario;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Распределяет прогон {@link StepGraph} по нескольким локальным JVM, когда одной JVM не хватает CPU клиента.
+ * Запускает воркеров дочерними процессами, делит между ними пользователей, дает общий старт и сливает
+ * приходящие от {@link LoadWorker} срезы в одну {@link StepStats}. Перцентили итогового отчета считаются
+ * по объединенной гистограмме, а не усредняются по воркерам, поэтому хвост распределения остается точным.
+ * <p>
+ * Воркер, оборвавший связь до завершения, попадает в {@link #getFailures()}; уже полученные от него срезы
+ * остаются в отчете.
+ */
+public final class LoadCoordinator {
+
+    /** Время на запуск JVM воркеров и их подключение. */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(60);
+    /** Воркер, молчащий дольше этого времени, считается зависшим: срезы приходят каждую секунду. */
+    private static final Duration SILENCE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration EXIT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final StepGraph graph;
+    private final int workers;
+    private final int users;
+    private final List<String> workerCommand;
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * @param workers Число воркеров; не больше числа пользователей.
+     * @param users Общее число пользователей, делится между воркерами поровну.
+     * @param workerCommand Команда запуска воркера; координатор дописывает к ней
+     *                      {@code --users N --worker-port PORT}.
+     */
+    public LoadCoordinator(StepGraph graph, int workers, int users, List<String> workerCommand) {
+        if (workers < 1 || workers > users) {
+            throw new IllegalArgumentException("Workers must be between 1 and users (" + users + "), got " + workers);
+        }
+        this.graph = graph;
+        this.workers = workers;
+        this.users = users;
+        this.workerCommand = List.copyOf(workerCommand);
+    }
+
+    /**
+     * Выполняет прогон и ждет завершения всех воркеров.
+     *
+     * @throws IOException Если не удалось запустить воркеров или дождаться их подключения.
+     */
+    public ScenarioRunner.Result run() throws IOException {
+        StepStats stats = new StepStats(graph.allSteps());
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        boolean completed = false;
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < workers; i++) {
+                int share = users / workers + (i < users % workers ? 1 : 0);
+                List<String> command = new ArrayList<>(workerCommand);
+                command.addAll(List.of("--users", String.valueOf(share), "--worker-port",
+                        String.valueOf(server.getLocalPort())));
+                processes.add(new ProcessBuilder(command).inheritIO().start());
+            }
+            List<String> names = new ArrayList<>();
+            server.setSoTimeout((int) CONNECT_TIMEOUT.toMillis());
+            for (int i = 0; i < workers; i++) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    throw new IOException("Only " + i + " of " + workers + " workers connected within "
+                            + CONNECT_TIMEOUT.toSeconds() + " s", e);
+                }
+                sockets.add(socket);
+                names.add(handshake(socket, stats.stepCount()));
+            }
+
+            long started = System.nanoTime();
+            for (Socket socket : sockets) {
+                socket.getOutputStream().write(LoadWorker.START);
+                socket.getOutputStream().flush();
+            }
+            List<Thread> readers = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Socket socket = sockets.get(i);
+                String name = names.get(i);
+                readers.add(Thread.ofVirtual().name("reader-" + name).start(() -> collect(socket, name, stats)));
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            completed = true;
+            return new ScenarioRunner.Result(stats, System.nanoTime() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for workers", e);
+        } finally {
+            for (Socket socket : sockets) {
+                closeQuietly(socket);
+            }
+            stopProcesses(processes, completed);
+        }
+    }
+
+    /**
+     * @return Описания воркеров, не завершивших прогон; пусто, если все отработали.
+     */
+    public List<String> getFailures() {
+        return List.copyOf(failures);
+    }
+
+    private static String handshake(Socket socket, int stepCount) throws IOException {
+        socket.setSoTimeout((int) SILENCE_TIMEOUT.toMillis());
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        if (in.readInt() != LoadWorker.MAGIC) {
+            throw new IOException("Unexpected connection from " + socket.getRemoteSocketAddress());
+        }
+        int workerSteps = in.readInt();
+        String name = "worker pid " + in.readLong();
+        if (workerSteps != stepCount) {
+            throw new IOException(name + " compiled " + workerSteps + " steps, coordinator has " + stepCount);
+        }
+        return name;
+    }
+
+    private void collect(Socket socket, String name, StepStats stats) {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (true) {
+                byte frame = in.readByte();
+                if (frame == LoadWorker.END) {
+                    return;
+                }
+                if (frame != LoadWorker.SNAPSHOT) {
+                    throw new IOException("Unexpected frame " + frame);
+                }
+                stats.add(StatsSnapshot.readFrom(in));
+            }
+        } catch (EOFException e) {
+            failures.add(name + " disconnected before finishing");
+        } catch (IOException | IllegalArgumentException e) {
+            failures.add(name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Дожидается выхода воркеров после успешного прогона; при сбое координатора завершает их сразу.
+     */
+    private static void stopProcesses(List<Process> processes, boolean completed) {
+        for (Process process : processes) {
+            if (!completed) {
+                process.destroy();
+            }
+            try {
+                if (!process.waitFor(EXIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Соединение уже не нужно
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.scenario;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Воркер распределенного прогона, запускаемый {@link LoadCoordinator} дочерним процессом.
+ * Подключается к координатору по loopback, ждет общей команды старта, выполняет свою долю пользователей
+ * и раз в {@link #SNAPSHOT_INTERVAL_MILLIS} мс отправляет {@link StatsSnapshot} за прошедший интервал.
+ * <p>
+ * Протокол: воркер пишет {@link #MAGIC}, число шагов и свой pid; координатор отвечает {@link #START};
+ * далее воркер пишет кадры {@link #SNAPSHOT} со срезом и в конце {@link #END}.
+ */
+public final class LoadWorker {
+
+    static final int MAGIC = 0x4C4F4144;
+    static final byte START = 1;
+    static final byte SNAPSHOT = 1;
+    static final byte END = 2;
+    static final long SNAPSHOT_INTERVAL_MILLIS = 1000;
+
+    private LoadWorker() {
+    }
+
+    /**
+     * Выполняет прогон под управлением координатора.
+     *
+     * @param port Порт координатора на loopback-интерфейсе.
+     * @throws IOException Если связь с координатором потеряна; прогон при этом прерывается.
+     */
+    public static void run(ScenarioRunner runner, StepGraph graph, int port) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            StepStats stats = new StepStats(graph.allSteps());
+            out.writeInt(MAGIC);
+            out.writeInt(stats.stepCount());
+            out.writeLong(ProcessHandle.current().pid());
+            out.flush();
+            byte command = in.readByte();
+            if (command != START) {
+                throw new IOException("Unexpected coordinator command " + command);
+            }
+
+            CountDownLatch finished = new CountDownLatch(1);
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            Thread streamer = Thread.ofVirtual().name("snapshot-streamer").start(() -> {
+                try {
+                    while (!finished.await(SNAPSHOT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        send(out, stats.drain());
+                    }
+                } catch (IOException e) {
+                    failure.set(e);
+                    runner.stop();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            try {
+                runner.run(stats);
+            } finally {
+                finished.countDown();
+                joinUninterruptibly(streamer);
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            // Последний срез отправляется после завершения всех пользователей, поэтому ничего не теряется
+            send(out, stats.drain());
+            out.writeByte(END);
+            out.flush();
+        }
+    }
+
+    private static void send(DataOutputStream out, StatsSnapshot snapshot) throws IOException {
+        out.writeByte(SNAPSHOT);
+        snapshot.writeTo(out);
+        out.flush();
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package org.example.scenario;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Компилирует декларативный JSON сценарий нагрузки в {@link StepGraph}.
+ * <pre>{@code
+ * {
+ *   "name": "shop",
+ *   "baseUri": "http://localhost:8080",
+ *   "users": 50, "rampUpSeconds": 10, "durationSeconds": 300,
+ *   "thinkTimeMillis": [200, 800],
+ *   "login": true,
+ *   "maxErrorRate": 0.01,
+ *   "setup": [{"name": "catalog", "request": "GET /products", "extract": {"productId": "/0/id"}}],
+ *   "steps": [
+ *     {"name": "browse", "request": "GET /products", "weight": 6},
+ *     {"name": "add", "request": "POST /cart", "auth": true, "weight": 2,
+ *      "body": {"product_id": "${productId}", "quantity": 1}, "next": {"cart": 1}},
+ *     {"name": "cart", "request": "GET /cart", "auth": true, "weight": 0}
+ *   ]
+ * }
+ * }</pre>
+ * {@code login: true} добавляет перед подготовкой шаги {@code register} и {@code login}, сохраняющие токен
+ * в переменную {@code token}. Ожидаемый статус по умолчанию — 201 для POST и 200 для остальных методов;
+ * {@code expect} задает число или массив статусов. Шаг с весом 0 достижим только через {@code next}.
+ * Пауза {@code thinkTimeMillis} — число или диапазон {@code [min, max]}, задается для сценария или шага.
+ * Разгон {@code rampUpSeconds} должен быть короче {@code durationSeconds}, иначе часть пользователей не успеет стартовать.
+ * Неизвестные поля считаются ошибкой, чтобы опечатка в сценарии не меняла нагрузку молча.
+ */
+public final class ScenarioCompiler {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "DELETE");
+    private static final Set<String> SCENARIO_FIELDS = Set.of("name", "baseUri", "users", "rampUpSeconds",
+            "durationSeconds", "thinkTimeMillis", "login", "password", "maxErrorRate", "setup", "steps");
+    private static final Set<String> STEP_FIELDS = Set.of("name", "request", "body", "auth", "expect", "weight",
+            "thinkTimeMillis", "extract", "next");
+
+    private final Variables variables = new Variables();
+    private final List<Step> compiled = new ArrayList<>();
+
+    private ScenarioCompiler() {
+    }
+
+    /**
+     * @throws IllegalArgumentException если сценарий некорректен; сообщение указывает на поле или шаг.
+     */
+    public static StepGraph compile(Path file) throws IOException {
+        return compile(MAPPER.readTree(Files.readAllBytes(file)), file.getFileName().toString());
+    }
+
+    /**
+     * @param defaultName Имя сценария, если в нем нет поля {@code name}.
+     * @throws IllegalArgumentException если сценарий некорректен; сообщение указывает на поле или шаг.
+     */
+    public static StepGraph compile(JsonNode scenario, String defaultName) {
+        return new ScenarioCompiler().compileScenario(scenario, defaultName);
+    }
+
+    private StepGraph compileScenario(JsonNode scenario, String defaultName) {
+        requireObject(scenario, "scenario");
+        checkFields(scenario, SCENARIO_FIELDS, "scenario");
+        JsonNode stepNodes = scenario.path("steps");
+        if (!stepNodes.isArray() || stepNodes.isEmpty()) {
+            throw new IllegalArgumentException("scenario: steps must be a non-empty array");
+        }
+        JsonNode setupNodes = scenario.path("setup");
+        if (!setupNodes.isMissingNode() && !setupNodes.isArray()) {
+            throw new IllegalArgumentException("scenario: setup must be an array");
+        }
+
+        List<JsonNode> setupDefinitions = new ArrayList<>();
+        if (scenario.path("login").asBoolean(false)) {
+            setupDefinitions.addAll(loginSteps(text(scenario.path("password"), "password")));
+        }
+        setupNodes.forEach(setupDefinitions::add);
+        // Переменные объявляются до компиляции шаблонов, чтобы шаг мог ссылаться на переменную, извлекаемую позже
+        for (JsonNode step : setupDefinitions) {
+            declareExtractions(step);
+        }
+        stepNodes.forEach(this::declareExtractions);
+
+        long[] defaultThink = thinkTime(scenario.path("thinkTimeMillis"), "scenario");
+        List<Step> setup = new ArrayList<>();
+        for (JsonNode definition : setupDefinitions) {
+            setup.add(compileStep(definition, defaultThink));
+        }
+        List<Step> steps = new ArrayList<>();
+        Map<String, Integer> stepIndex = new HashMap<>();
+        for (JsonNode definition : stepNodes) {
+            Step step = compileStep(definition, defaultThink);
+            if (stepIndex.put(step.name, steps.size()) != null) {
+                throw new IllegalArgumentException("step " + step.name + ": duplicate name");
+            }
+            steps.add(step);
+        }
+
+        List<Integer> entryTargets = new ArrayList<>();
+        List<Integer> entryWeights = new ArrayList<>();
+        for (int i = 0; i < steps.size(); i++) {
+            JsonNode definition = stepNodes.get(i);
+            int weight = nonNegativeInt(definition.path("weight"), 1, "step " + steps.get(i).name + ": weight");
+            if (weight > 0) {
+                entryTargets.add(i);
+                entryWeights.add(weight);
+            }
+            JsonNode next = definition.path("next");
+            if (!next.isMissingNode()) {
+                compileTransitions(steps.get(i), next, stepIndex);
+            }
+        }
+        if (entryTargets.isEmpty()) {
+            throw new IllegalArgumentException("scenario: at least one step must have a positive weight");
+        }
+
+        int users = positiveInt(scenario.path("users"), 1, "scenario: users");
+        Duration rampUp = Duration.ofSeconds(nonNegativeInt(scenario.path("rampUpSeconds"), 0, "scenario: rampUpSeconds"));
+        Duration duration = Duration.ofSeconds(positiveInt(scenario.path("durationSeconds"), 60, "scenario: durationSeconds"));
+        if (rampUp.compareTo(duration) >= 0) {
+            throw new IllegalArgumentException("scenario: rampUpSeconds must be less than durationSeconds");
+        }
+        double maxErrorRate = scenario.path("maxErrorRate").asDouble(1.0);
+        if (maxErrorRate < 0 || maxErrorRate > 1) {
+            throw new IllegalArgumentException("scenario: maxErrorRate must be within [0, 1]");
+        }
+        String baseUri = scenario.hasNonNull("baseUri") ? scenario.get("baseUri").asText() : null;
+        return new StepGraph(text(scenario.path("name"), defaultName), baseUri, users, rampUp, duration, maxErrorRate,
+                List.copyOf(setup), List.copyOf(steps), toArray(entryTargets), cumulative(entryWeights),
+                variables.size());
+    }
+
+    /**
+     * Встроенные шаги регистрации и входа уникального пользователя с сохранением токена в {@code ${token}}.
+     */
+    private static List<JsonNode> loginSteps(String password) {
+        ObjectNode credentials = JsonNodeFactory.instance.objectNode().put("username", "${user}").put("password", password);
+        ObjectNode register = JsonNodeFactory.instance.objectNode()
+                .put("name", "register").put("request", "POST /register");
+        register.set("body", credentials);
+        ObjectNode login = JsonNodeFactory.instance.objectNode()
+                .put("name", "login").put("request", "POST /login").put("expect", 200);
+        login.set("body", credentials);
+        login.set("extract", JsonNodeFactory.instance.objectNode().put("token", "/access_token"));
+        return List.of(register, login);
+    }
+
+    private void declareExtractions(JsonNode step) {
+        step.path("extract").fieldNames().forEachRemaining(variables::declare);
+    }
+
+    private Step compileStep(JsonNode definition, long[] defaultThink) {
+        requireObject(definition, "step");
+        String name = text(definition.path("name"), null);
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("step: name is required in " + definition);
+        }
+        String where = "step " + name;
+        checkFields(definition, STEP_FIELDS, where);
+
+        String request = text(definition.path("request"), "");
+        int space = request.indexOf(' ');
+        String method = space < 0 ? "" : request.substring(0, space).toUpperCase(Locale.ROOT);
+        String path = space < 0 ? "" : request.substring(space + 1).trim();
+        if (!METHODS.contains(method) || !path.startsWith("/")) {
+            throw new IllegalArgumentException(where + ": request must look like \"GET /products\", got \"" + request + "\"");
+        }
+
+        Template body = null;
+        if (definition.hasNonNull("body")) {
+            try {
+                body = Template.compile(MAPPER.writeValueAsString(definition.get("body")), variables, true);
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalArgumentException(where + ": body: " + e.getMessage(), e);
+            }
+        }
+        Template pathTemplate;
+        try {
+            pathTemplate = Template.compile(path, variables, false);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(where + ": request: " + e.getMessage(), e);
+        }
+
+        int[] expected = expectedStatuses(definition.path("expect"), method, where);
+        long[] think = definition.has("thinkTimeMillis") ? thinkTime(definition.get("thinkTimeMillis"), where) : defaultThink;
+
+        List<Step.Extraction> extractions = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = definition.path("extract").fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            try {
+                extractions.add(new Step.Extraction(variables.slotOf(field.getKey()),
+                        JsonPointer.compile(field.getValue().asText())));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(where + ": extract " + field.getKey() + ": " + e.getMessage(), e);
+            }
+        }
+
+        Step step = new Step(compiled.size(), name, request, method, pathTemplate, body, expected,
+                definition.path("auth").asBoolean(false), think[0], think[1], extractions.toArray(new Step.Extraction[0]));
+        compiled.add(step);
+        return step;
+    }
+
+    private static void compileTransitions(Step step, JsonNode next, Map<String, Integer> stepIndex) {
+        requireObject(next, "step " + step.name + ": next");
+        List<Integer> targets = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = next.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Integer target = stepIndex.get(field.getKey());
+            if (target == null) {
+                throw new IllegalArgumentException("step " + step.name + ": next refers to unknown step " + field.getKey());
+            }
+            int weight = nonNegativeInt(field.getValue(), 1, "step " + step.name + ": next " + field.getKey());
+            if (weight > 0) {
+                targets.add(target);
+                weights.add(weight);
+            }
+        }
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("step " + step.name + ": next must have a positive weight");
+        }
+        step.nextTargets = toArray(targets);
+        step.nextCumulativeWeights = cumulative(weights);
+    }
+
+    private static int[] expectedStatuses(JsonNode expect, String method, String where) {
+        if (expect.isMissingNode()) {
+            return new int[]{method.equals("POST") ? 201 : 200};
+        }
+        List<Integer> statuses = new ArrayList<>();
+        for (JsonNode status : expect.isArray() ? expect : List.of(expect)) {
+            if (!status.canConvertToInt() || status.asInt() < 100 || status.asInt() > 599) {
+                throw new IllegalArgumentException(where + ": expect must be HTTP statuses, got " + expect);
+            }
+            statuses.add(status.asInt());
+        }
+        return statuses.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+    }
+
+    /**
+     * @return Пауза {@code [min, max]} в наносекундах.
+     */
+    private static long[] thinkTime(JsonNode value, String where) {
+        if (value.isMissingNode() || value.isNull()) {
+            return new long[]{0, 0};
+        }
+        long min;
+        long max;
+        if (value.isArray() && value.size() == 2 && value.get(0).canConvertToLong() && value.get(1).canConvertToLong()) {
+            min = value.get(0).asLong();
+            max = value.get(1).asLong();
+        } else if (value.canConvertToLong()) {
+            min = value.asLong();
+            max = min;
+        } else {
+            throw new IllegalArgumentException(where + ": thinkTimeMillis must be a number or [min, max]");
+        }
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException(where + ": thinkTimeMillis must satisfy 0 <= min <= max");
+        }
+        return new long[]{TimeUnit.MILLISECONDS.toNanos(min), TimeUnit.MILLISECONDS.toNanos(max)};
+    }
+
+    private static void checkFields(JsonNode node, Set<String> allowed, String where) {
+        node.fieldNames().forEachRemaining(field -> {
+            if (!allowed.contains(field)) {
+                throw new IllegalArgumentException(where + ": unknown field " + field + ", allowed: " + allowed);
+            }
+        });
+    }
+
+    private static void requireObject(JsonNode node, String where) {
+        if (!node.isObject()) {
+            throw new IllegalArgumentException(where + " must be a JSON object, got " + node);
+        }
+    }
+
+    private static int positiveInt(JsonNode value, int defaultValue, String where) {
+        int result = nonNegativeInt(value, defaultValue, where);
+        if (result == 0) {
+            throw new IllegalArgumentException(where + " must be positive");
+        }
+        return result;
+    }
+
+    private static int nonNegativeInt(JsonNode value, int defaultValue, String where) {
+        if (value.isMissingNode()) {
+            return defaultValue;
+        }
+        if (!value.canConvertToInt() || !value.isIntegralNumber() || value.asInt() < 0) {
+            throw new IllegalArgumentException(where + " must be a non-negative integer, got " + value);
+        }
+        return value.asInt();
+    }
+
+    /**
+     * @return Текст скалярного значения или {@code defaultValue}, если поле отсутствует, равно null или не скаляр.
+     */
+    private static String text(JsonNode value, String defaultValue) {
+        return value.isValueNode() && !value.isNull() ? value.asText() : defaultValue;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] cumulative(List<Integer> weights) {
+        int[] cumulative = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            sum = Math.addExact(sum, weights.get(i));
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.scenario;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Выполняет {@link StepGraph} закрытой моделью нагрузки: {@code users} виртуальных пользователей на виртуальных
+ * потоках, запускаемых равномерно за время разгона, каждый ходит по графу до истечения длительности прогона.
+ * Запросы отправляются {@link HttpClient} из JDK, поэтому прогону не нужны ни TestNG, ни RestAssured.
+ * <p>
+ * Шаг, на котором подготовка пользователя завершилась ошибкой, прерывает этого пользователя: остальные шаги
+ * без токена или извлеченных переменных все равно не смогли бы выполниться.
+ */
+public final class ScenarioRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpRequest.BodyPublisher NO_BODY = HttpRequest.BodyPublishers.noBody();
+
+    private final StepGraph graph;
+    private final String baseUri;
+    private final int users;
+    private final Duration duration;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private volatile boolean stopped;
+
+    /**
+     * @param baseUri Адрес сервиса без завершающего {@code /}.
+     * @param users Число виртуальных пользователей.
+     * @param duration Длительность прогона после старта первого пользователя; должна быть больше разгона сценария.
+     * @throws IllegalArgumentException Если разгон не короче длительности: пользователи, запланированные после конца
+     *                                  прогона, ничего не выполнили бы, а время прогона и req/s исказились бы.
+     */
+    public ScenarioRunner(StepGraph graph, String baseUri, int users, Duration duration, Duration connectTimeout,
+                          Duration requestTimeout) {
+        if (graph.getRampUp().compareTo(duration) >= 0) {
+            throw new IllegalArgumentException("Duration " + duration.toSeconds() + " s must be longer than ramp-up "
+                    + graph.getRampUp().toSeconds() + " s");
+        }
+        this.graph = graph;
+        this.baseUri = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+        this.users = users;
+        this.duration = duration;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    /**
+     * Выполняет прогон и ждет завершения всех пользователей.
+     */
+    public Result run() {
+        return run(new StepStats(graph.allSteps()));
+    }
+
+    /**
+     * Выполняет прогон с записью в переданную статистику, которую можно параллельно забирать
+     * {@link StepStats#drain()}.
+     */
+    Result run(StepStats stats) {
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        long rampUpNanos = graph.getRampUp().toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                long startAt = started + rampUpNanos * i / users;
+                String username = "load-" + runId + "-" + i;
+                executor.submit(() -> {
+                    sleepUntil(startAt);
+                    runUser(username, stats, deadline);
+                });
+            }
+        }
+        return new Result(stats, System.nanoTime() - started);
+    }
+
+    /**
+     * Прерывает прогон досрочно: пользователи завершаются после текущего запроса.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    private void runUser(String username, StepStats stats, long deadline) {
+        Random random = ThreadLocalRandom.current();
+        String[] values = new String[graph.variableCount()];
+        values[Variables.USER] = username;
+        for (Step step : graph.setup()) {
+            if (stopped || System.nanoTime() >= deadline || !execute(step, values, stats)) {
+                return;
+            }
+        }
+        Step step = graph.first(random);
+        while (!stopped && System.nanoTime() < deadline) {
+            execute(step, values, stats);
+            long think = step.thinkNanos(random);
+            if (think > 0) {
+                sleepUntil(Math.min(System.nanoTime() + think, deadline));
+            }
+            step = graph.next(step, random);
+        }
+    }
+
+    /**
+     * Выполняет один шаг и извлекает переменные из успешного ответа.
+     *
+     * @return {@code true}, если ответ пришел с ожидаемым статусом.
+     */
+    private boolean execute(Step step, String[] values, StepStats stats) {
+        String path = step.path.render(values);
+        String body = step.body == null ? null : step.body.render(values);
+        if (path == null || (step.body != null && body == null) || (step.auth && values[Variables.TOKEN] == null)) {
+            // Переменная еще не получена: шаг считается ошибкой без отправки запроса
+            stats.record(step, StepStats.NO_RESPONSE, 0, true);
+            return false;
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUri + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .method(step.method, body == null ? NO_BODY : HttpRequest.BodyPublishers.ofString(body));
+        if (step.auth) {
+            request.header("Authorization", "Bearer " + values[Variables.TOKEN]);
+        }
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(step, StepStats.NO_RESPONSE, System.nanoTime() - start, true);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        boolean expected = step.isExpected(response.statusCode());
+        stats.record(step, response.statusCode(), elapsedNanos, !expected);
+        if (expected && step.extractions.length > 0) {
+            extract(step, response.body(), values);
+        }
+        return expected;
+    }
+
+    private static void extract(Step step, byte[] body, String[] values) {
+        JsonNode tree;
+        try {
+            tree = MAPPER.readTree(body);
+        } catch (IOException e) {
+            return;
+        }
+        for (Step.Extraction extraction : step.extractions) {
+            JsonNode value = tree.at(extraction.pointer());
+            if (value.isValueNode() && !value.isNull()) {
+                values[extraction.slot()] = value.asText();
+            }
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Итог прогона.
+     */
+    public static final class Result {
+        private final StepStats stats;
+        private final long elapsedNanos;
+
+        Result(StepStats stats, long elapsedNanos) {
+            this.stats = stats;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public StepStats getStats() {
+            return stats;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public String report() {
+            return stats.report(elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.scenario;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/**
+ * Срез статистики за интервал, снятый {@link StepStats#drain()}: гистограммы задержек, число ошибок по шагам
+ * и распределение статусов. Срезы аддитивны — сумма срезов воркеров равна статистике общего прогона.
+ * <p>
+ * В двоичном виде передаются только шаги с запросами или ошибками; гистограмма кодируется сжатым форматом
+ * HdrHistogram, так что срез занимает единицы килобайт независимо от числа запросов.
+ */
+final class StatsSnapshot {
+
+    private final Histogram[] latencies;
+    private final long[] errors;
+    private final Map<Integer, Long> statuses;
+
+    StatsSnapshot(Histogram[] latencies, long[] errors, Map<Integer, Long> statuses) {
+        this.latencies = latencies;
+        this.errors = errors;
+        this.statuses = statuses;
+    }
+
+    int stepCount() {
+        return errors.length;
+    }
+
+    /**
+     * @return Гистограмма шага или {@code null}, если за интервал запросов не было.
+     */
+    Histogram latencies(int step) {
+        return latencies[step];
+    }
+
+    long errors(int step) {
+        return errors[step];
+    }
+
+    Map<Integer, Long> statuses() {
+        return statuses;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        int present = 0;
+        for (int i = 0; i < errors.length; i++) {
+            if (hasData(i)) {
+                present++;
+            }
+        }
+        out.writeInt(errors.length);
+        out.writeInt(present);
+        ByteBuffer buffer = null;
+        for (int i = 0; i < errors.length; i++) {
+            if (!hasData(i)) {
+                continue;
+            }
+            out.writeInt(i);
+            out.writeLong(errors[i]);
+            Histogram histogram = latencies[i];
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                out.writeInt(0);
+                continue;
+            }
+            int capacity = histogram.getNeededByteBufferCapacity();
+            if (buffer == null || buffer.capacity() < capacity) {
+                buffer = ByteBuffer.allocate(capacity);
+            }
+            buffer.clear();
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            out.writeInt(length);
+            out.write(buffer.array(), 0, length);
+        }
+        out.writeInt(statuses.size());
+        for (Map.Entry<Integer, Long> status : statuses.entrySet()) {
+            out.writeInt(status.getKey());
+            out.writeLong(status.getValue());
+        }
+    }
+
+    /**
+     * @throws IOException Если поток оборвался или содержит некорректный срез.
+     */
+    static StatsSnapshot readFrom(DataInputStream in) throws IOException {
+        int stepCount = in.readInt();
+        int present = in.readInt();
+        if (stepCount < 0 || present < 0 || present > stepCount) {
+            throw new IOException("Corrupted snapshot header: " + stepCount + " steps, " + present + " present");
+        }
+        Histogram[] latencies = new Histogram[stepCount];
+        long[] errors = new long[stepCount];
+        for (int i = 0; i < present; i++) {
+            int step = in.readInt();
+            if (step < 0 || step >= stepCount) {
+                throw new IOException("Corrupted snapshot: step " + step + " of " + stepCount);
+            }
+            errors[step] = in.readLong();
+            int length = in.readInt();
+            if (length > 0) {
+                byte[] encoded = new byte[length];
+                in.readFully(encoded);
+                try {
+                    latencies[step] = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded),
+                            StepStats.HIGHEST_TRACKABLE_MICROS);
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupted histogram of step " + step, e);
+                }
+            }
+        }
+        int statusCount = in.readInt();
+        Map<Integer, Long> statuses = new HashMap<>();
+        for (int i = 0; i < statusCount; i++) {
+            statuses.put(in.readInt(), in.readLong());
+        }
+        return new StatsSnapshot(latencies, errors, statuses);
+    }
+
+    private boolean hasData(int step) {
+        return errors[step] != 0 || (latencies[step] != null && latencies[step].getTotalCount() > 0);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.scenario;
+
+import com.fasterxml.jackson.core.JsonPointer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Скомпилированный шаг сценария: запрос с шаблонами пути и тела, ожидаемые статусы, извлечение переменных
+ * из ответа, пауза после шага и взвешенные переходы к следующим шагам.
+ */
+final class Step {
+
+    /**
+     * Извлечение значения из JSON ответа по указателю в слот переменной.
+     */
+    record Extraction(int slot, JsonPointer pointer) {
+    }
+
+    final int index;
+    final String name;
+    /** Запрос в виде из сценария, например {@code "GET /products/${productId}"}. */
+    final String request;
+    final String method;
+    final Template path;
+    final Template body;
+    final int[] expectedStatuses;
+    final boolean auth;
+    final long thinkMinNanos;
+    final long thinkMaxNanos;
+    final Extraction[] extractions;
+
+    /** Цели переходов и накопленные веса; {@code null} — следующий шаг выбирается по весам входа графа. */
+    int[] nextTargets;
+    int[] nextCumulativeWeights;
+
+    Step(int index, String name, String request, String method, Template path, Template body, int[] expectedStatuses,
+         boolean auth, long thinkMinNanos, long thinkMaxNanos, Extraction[] extractions) {
+        this.index = index;
+        this.name = name;
+        this.request = request;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+        this.expectedStatuses = expectedStatuses;
+        this.auth = auth;
+        this.thinkMinNanos = thinkMinNanos;
+        this.thinkMaxNanos = thinkMaxNanos;
+        this.extractions = extractions;
+    }
+
+    boolean isExpected(int status) {
+        return Arrays.binarySearch(expectedStatuses, status) >= 0;
+    }
+
+    long thinkNanos(Random random) {
+        return thinkMaxNanos <= thinkMinNanos ? thinkMinNanos
+                : thinkMinNanos + (long) (random.nextDouble() * (thinkMaxNanos - thinkMinNanos));
+    }
+
+    /**
+     * Выбирает индекс цели по накопленным весам. Цели с нулевым весом в массивы не попадают,
+     * поэтому накопленные веса строго возрастают.
+     */
+    static int pick(int[] targets, int[] cumulativeWeights, Random random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int found = Arrays.binarySearch(cumulativeWeights, point + 1);
+        return targets[found >= 0 ? found : -found - 1];
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.scenario;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Сценарий нагрузки, скомпилированный {@link ScenarioCompiler} в граф шагов.
+ * Каждый виртуальный пользователь один раз выполняет шаги подготовки по порядку, затем ходит по графу:
+ * первый шаг выбирается по весам шагов, следующий — по весам переходов {@code next} текущего шага
+ * или снова по весам шагов, если переходы не заданы. Граф неизменяем и разделяется всеми пользователями.
+ */
+public final class StepGraph {
+
+    private final String name;
+    private final String baseUri;
+    private final int users;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final double maxErrorRate;
+    private final List<Step> setup;
+    private final List<Step> steps;
+    private final int[] entryTargets;
+    private final int[] entryCumulativeWeights;
+    private final int variableCount;
+
+    StepGraph(String name, String baseUri, int users, Duration rampUp, Duration duration, double maxErrorRate,
+              List<Step> setup, List<Step> steps, int[] entryTargets, int[] entryCumulativeWeights, int variableCount) {
+        this.name = name;
+        this.baseUri = baseUri;
+        this.users = users;
+        this.rampUp = rampUp;
+        this.duration = duration;
+        this.maxErrorRate = maxErrorRate;
+        this.setup = setup;
+        this.steps = steps;
+        this.entryTargets = entryTargets;
+        this.entryCumulativeWeights = entryCumulativeWeights;
+        this.variableCount = variableCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Адрес сервиса из сценария или {@code null}, если он должен быть задан при запуске.
+     */
+    public String getBaseUri() {
+        return baseUri;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public Duration getRampUp() {
+        return rampUp;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return Допустимая доля запросов с неожиданным статусом или ошибкой; 1 — без ограничения.
+     */
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    List<Step> setup() {
+        return setup;
+    }
+
+    /**
+     * @return Все шаги: сначала подготовка, затем шаги графа; индекс шага совпадает с позицией в списке.
+     */
+    List<Step> allSteps() {
+        List<Step> all = new ArrayList<>(setup);
+        all.addAll(steps);
+        return all;
+    }
+
+    int variableCount() {
+        return variableCount;
+    }
+
+    Step first(Random random) {
+        return steps.get(Step.pick(entryTargets, entryCumulativeWeights, random));
+    }
+
+    Step next(Step current, Random random) {
+        return current.nextTargets == null ? first(random)
+                : steps.get(Step.pick(current.nextTargets, current.nextCumulativeWeights, random));
+    }
+
+    /**
+     * @return Текстовое описание графа: шаги подготовки, шаги с вероятностями входа и переходов.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder()
+                .append("Scenario ").append(name).append(": ").append(users).append(" users, ramp-up ")
+                .append(rampUp.toSeconds()).append(" s, duration ").append(duration.toSeconds()).append(" s\n");
+        for (Step step : setup) {
+            description.append("  setup ").append(step.name).append(": ").append(step.request).append('\n');
+        }
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            description.append(String.format("  step %s: %s, entry %.1f%%", step.name, step.request,
+                    probability(entryTargets, entryCumulativeWeights, i)));
+            if (step.nextTargets != null) {
+                description.append(", next");
+                for (int target = 0; target < steps.size(); target++) {
+                    double probability = probability(step.nextTargets, step.nextCumulativeWeights, target);
+                    if (probability > 0) {
+                        description.append(String.format(" %s %.1f%%", steps.get(target).name, probability));
+                    }
+                }
+            }
+            description.append('\n');
+        }
+        return description.toString();
+    }
+
+    private static double probability(int[] targets, int[] cumulativeWeights, int target) {
+        int weight = 0;
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] == target) {
+                weight += cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1]);
+            }
+        }
+        return weight * 100.0 / cumulativeWeights[cumulativeWeights.length - 1];
+    }
+}
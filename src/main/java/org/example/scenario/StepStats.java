@@ -0,0 +1,183 @@
+package org.example.scenario;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная статистика прогона по шагам сценария: гистограмма задержек HdrHistogram в микросекундах,
+ * число ошибок (неожиданный статус или сбой запроса) и распределение статусов.
+ * <p>
+ * Запись идет в {@link Recorder} без блокировок; {@link #drain()} забирает накопленное с прошлого вызова
+ * в виде {@link StatsSnapshot}, а {@link #add(StatsSnapshot)} сливает срез в итоговые значения.
+ * Локальный прогон делает это сам перед построением отчета, воркер отправляет срезы координатору,
+ * который сливает их от всех воркеров — перцентили общего отчета считаются по объединенной гистограмме.
+ */
+public final class StepStats {
+
+    /** Максимальная отслеживаемая задержка — одна минута. */
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    static final int SIGNIFICANT_DIGITS = 3;
+    /** Статус для запросов, не получивших ответа. */
+    static final int NO_RESPONSE = 0;
+
+    private final List<Step> steps;
+    private final Recorder[] recorders;
+    private final LongAdder[] errors;
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    // Уже отданное в drain(), защищено this
+    private final long[] drainedErrors;
+    private final Map<Integer, Long> drainedStatuses = new HashMap<>();
+
+    // Итоговые значения, защищены this
+    private final Histogram[] latencies;
+    private final long[] totalErrors;
+    private final Map<Integer, Long> totalStatuses = new TreeMap<>();
+
+    StepStats(List<Step> steps) {
+        this.steps = steps;
+        this.recorders = new Recorder[steps.size()];
+        this.errors = new LongAdder[steps.size()];
+        this.drainedErrors = new long[steps.size()];
+        this.latencies = new Histogram[steps.size()];
+        this.totalErrors = new long[steps.size()];
+        for (int i = 0; i < steps.size(); i++) {
+            recorders[i] = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            errors[i] = new LongAdder();
+            latencies[i] = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+    }
+
+    int stepCount() {
+        return steps.size();
+    }
+
+    void record(Step step, int status, long elapsedNanos, boolean error) {
+        recorders[step.index].recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 1),
+                HIGHEST_TRACKABLE_MICROS));
+        if (error) {
+            errors[step.index].increment();
+        }
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Забирает записанное с прошлого вызова. Счетчики не сбрасываются, а вычитаются из уже отданных,
+     * поэтому инкремент, пришедшийся на момент среза, попадает в следующий срез, а не теряется.
+     */
+    synchronized StatsSnapshot drain() {
+        Histogram[] intervals = new Histogram[steps.size()];
+        long[] errorDeltas = new long[steps.size()];
+        for (int i = 0; i < steps.size(); i++) {
+            intervals[i] = recorders[i].getIntervalHistogram();
+            long sum = errors[i].sum();
+            errorDeltas[i] = sum - drainedErrors[i];
+            drainedErrors[i] = sum;
+        }
+        Map<Integer, Long> statusDeltas = new HashMap<>();
+        statuses.forEach((status, count) -> {
+            long sum = count.sum();
+            long delta = sum - drainedStatuses.getOrDefault(status, 0L);
+            if (delta > 0) {
+                statusDeltas.put(status, delta);
+                drainedStatuses.put(status, sum);
+            }
+        });
+        return new StatsSnapshot(intervals, errorDeltas, statusDeltas);
+    }
+
+    /**
+     * Сливает срез в итоговые значения: гистограммы складываются поячеечно, поэтому перцентили
+     * по объединению точны в пределах {@link #SIGNIFICANT_DIGITS} значащих цифр.
+     *
+     * @throws IllegalArgumentException Если срез снят с другого числа шагов.
+     */
+    synchronized void add(StatsSnapshot snapshot) {
+        if (snapshot.stepCount() != steps.size()) {
+            throw new IllegalArgumentException("Snapshot has " + snapshot.stepCount() + " steps, expected "
+                    + steps.size());
+        }
+        for (int i = 0; i < steps.size(); i++) {
+            Histogram histogram = snapshot.latencies(i);
+            if (histogram != null) {
+                latencies[i].add(histogram);
+            }
+            totalErrors[i] += snapshot.errors(i);
+        }
+        snapshot.statuses().forEach((status, count) -> totalStatuses.merge(status, count, Long::sum));
+    }
+
+    /**
+     * @return Копия итоговой гистограммы задержек шага в микросекундах.
+     */
+    synchronized Histogram latencies(Step step) {
+        add(drain());
+        return latencies[step.index].copy();
+    }
+
+    public synchronized long totalRequests() {
+        add(drain());
+        long total = 0;
+        for (Histogram histogram : latencies) {
+            total += histogram.getTotalCount();
+        }
+        return total;
+    }
+
+    public synchronized long totalErrors() {
+        add(drain());
+        long total = 0;
+        for (long error : totalErrors) {
+            total += error;
+        }
+        return total;
+    }
+
+    public synchronized double errorRate() {
+        long total = totalRequests();
+        return total == 0 ? 0 : (double) totalErrors() / total;
+    }
+
+    /**
+     * Формирует текстовый отчет с пропускной способностью, перцентилями p50/p90/p99/p99.9 по шагам и статусами.
+     *
+     * @param elapsedNanos Длительность прогона, по которой считается пропускная способность.
+     */
+    public synchronized String report(long elapsedNanos) {
+        add(drain());
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Total: %d requests, %d errors (%.2f%%), %.1f s, %.1f req/s%n",
+                totalRequests(), totalErrors(), errorRate() * 100, seconds, totalRequests() / seconds));
+        report.append(String.format("%-16s %-32s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Step", "Request", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Step step : steps) {
+            Histogram histogram = latencies[step.index];
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            report.append(String.format("%-16s %-32s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    step.name, step.request, histogram.getTotalCount(), totalErrors[step.index],
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        report.append("Statuses: ").append(totalStatuses).append(" (0 = no response)\n");
+        return report.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Строка с подстановками {@code ${name}}, разобранная один раз при компиляции сценария.
+ * Имена переменных заменены номерами слотов значений виртуального пользователя, поэтому подстановка
+ * не ищет переменные по имени и не разбирает шаблон заново.
+ * <p>
+ * В шаблоне JSON тела подстановка, занимающая строковое значение целиком ({@code "${productId}"}),
+ * вставляет число без кавычек, а любое другое значение — как JSON строку; подстановка внутри строки экранируется.
+ */
+final class Template {
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private final String[] literals;
+    private final int[] slots;
+    private final boolean[] wholeJsonValue;
+    private final boolean json;
+
+    private Template(String[] literals, int[] slots, boolean[] wholeJsonValue, boolean json) {
+        this.literals = literals;
+        this.slots = slots;
+        this.wholeJsonValue = wholeJsonValue;
+        this.json = json;
+    }
+
+    /**
+     * @param json {@code true} для JSON тела запроса, {@code false} для пути.
+     * @throws IllegalArgumentException если шаблон ссылается на неизвестную переменную или скобка не закрыта.
+     */
+    static Template compile(String text, Variables variables, boolean json) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> whole = new ArrayList<>();
+        int from = 0;
+        StringBuilder literal = new StringBuilder();
+        while (true) {
+            int start = text.indexOf("${", from);
+            if (start < 0) {
+                literal.append(text, from, text.length());
+                break;
+            }
+            int end = text.indexOf('}', start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed ${ in " + text);
+            }
+            boolean wholeValue = json && start > 0 && text.charAt(start - 1) == '"'
+                    && end + 1 < text.length() && text.charAt(end + 1) == '"';
+            literal.append(text, from, wholeValue ? start - 1 : start);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            slots.add(variables.slotOf(text.substring(start + 2, end)));
+            whole.add(wholeValue);
+            from = wholeValue ? end + 2 : end + 1;
+        }
+        literals.add(literal.toString());
+        boolean[] wholeJsonValue = new boolean[whole.size()];
+        for (int i = 0; i < wholeJsonValue.length; i++) {
+            wholeJsonValue[i] = whole.get(i);
+        }
+        return new Template(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray(),
+                wholeJsonValue, json);
+    }
+
+    /**
+     * @param values Значения переменных виртуального пользователя по номерам слотов.
+     * @return Строка с подстановками или {@code null}, если какая-то переменная еще не задана.
+     */
+    String render(String[] values) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder result = new StringBuilder(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = values[slots[i]];
+            if (value == null) {
+                return null;
+            }
+            if (wholeJsonValue[i]) {
+                if (NUMBER.matcher(value).matches()) {
+                    result.append(value);
+                } else {
+                    result.append('"');
+                    appendEscaped(result, value);
+                    result.append('"');
+                }
+            } else if (json) {
+                appendEscaped(result, value);
+            } else {
+                result.append(value);
+            }
+            result.append(literals[i + 1]);
+        }
+        return result.toString();
+    }
+
+    private static void appendEscaped(StringBuilder result, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> result.append("\\\"");
+                case '\\' -> result.append("\\\\");
+                case '\n' -> result.append("\\n");
+                case '\r' -> result.append("\\r");
+                case '\t' -> result.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
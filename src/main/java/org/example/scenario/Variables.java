@@ -0,0 +1,46 @@
+package org.example.scenario;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Номера слотов переменных сценария. Встроенные переменные: {@code user} — имя виртуального пользователя,
+ * {@code token} — его токен доступа после входа; остальные объявляются через {@code extract} шагов.
+ */
+final class Variables {
+
+    static final int USER = 0;
+    static final int TOKEN = 1;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    Variables() {
+        declare("user");
+        declare("token");
+    }
+
+    int declare(String name) {
+        return slots.computeIfAbsent(name, key -> {
+            names.add(key);
+            return names.size() - 1;
+        });
+    }
+
+    /**
+     * @throws IllegalArgumentException если переменная не объявлена.
+     */
+    int slotOf(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            throw new IllegalArgumentException("Unknown variable ${" + name + "}, declared: " + names);
+        }
+        return slot;
+    }
+
+    int size() {
+        return names.size();
+    }
+}
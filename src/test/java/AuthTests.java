@@ -0,0 +1,42 @@
+import io.restassured.response.Response;
+
+import model.*;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты регистрации и аутентификации пользователя.
+ */
+public class AuthTests extends BaseTest {
+
+
+    /**
+     * Тестирование процесса регистрации пользователя.
+     * Ожидается успешная регистрация с получением статуса ответа 201.
+     */
+    @Test(priority = 1)
+    public void UserRegistrationTest() {
+        // Генерируем уникальное имя пользователя
+        registeredUsername = uniqueUsername();
+        registeredPassword = "password";
+
+        // Создаем объект пользователя
+        user = new User(registeredUsername, registeredPassword);
+
+        // Объект пользователя сериализуется общим ObjectMapper из BaseTest
+        performRequestAndVerify("POST", "/register", user, null, 201);
+    }
+
+    @Test(priority = 2)
+
+    public void authenticateUser() {
+
+        // Отправляем POST запрос для аутентификации пользователя и получаем токен доступа
+        Response response = performRequestAndVerify("POST", "/login", user, null, 200);
+
+        // Проверяем, что токен действительно получен и сохраняем его
+        accessToken = response.path("access_token");
+        assertNotNull(accessToken, "Access token should not be null");
+    }
+}
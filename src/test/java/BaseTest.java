@@ -1,16 +1,194 @@
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import auth.TokenCache;
+import capture.ReplayStub;
+import capture.TrafficRecord;
+import capture.TrafficRecorder;
+import client.AsyncHttpEngine;
+import client.PooledHttpClient;
+import client.ResponseCache;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.LogConfig;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.http.Header;
 import io.restassured.response.Response;
+import io.restassured.response.ValidatableResponse;
 import io.restassured.specification.RequestSpecification;
+import metrics.MetricsListener;
+import metrics.MetricsRegistry;
+import metrics.Phase;
+import metrics.PhaseClock;
 import model.*;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import sla.LatencyBudget;
+import sla.SlaMonitor;
+import stub.EmbeddedServer;
+import stub.ShopApiStub;
+import validation.JsonSchema;
+import validation.ResponseSchemas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static io.restassured.RestAssured.given;
+import static org.testng.Assert.assertNotNull;
+
 /**
  * Базовый класс для API тестов.
  * Предоставляет настройки и утилиты для выполнения HTTP запросов с использованием RestAssured.
  */
 public class BaseTest {
 
+    /** Адрес удаленного сервиса, используемый по умолчанию. */
+    private static final String REMOTE_BASE_URI = "http://9b142cdd34e.vps.myjino.ru:49268";
+
+    /**
+     * Встроенный сервер, поднимаемый вместо удаленного сервиса при {@code -Dapi.stub=true} или {@code -Dapi.replay=file}.
+     * {@code null}, если тесты идут против удаленного сервиса.
+     */
+    private static EmbeddedServer stub;
+
+    /**
+     * Запись трафика в NDJSON файл при {@code -Dapi.capture=file}; {@code null}, если захват выключен.
+     */
+    private static volatile TrafficRecorder recorder;
+
+    /**
+     * Режим логирования запросов и ответов в {@link #performRequestAndVerify}.
+     */
+    protected enum LogMode {
+        /** Не логировать ничего. */
+        OFF,
+        /** Логировать запрос и ответ целиком только при провале проверки статусного кода. */
+        FAILURE,
+        /** Логировать только заголовки запроса и ответа. */
+        HEADERS,
+        /** Логировать запрос и ответ целиком. */
+        ALL;
+
+        /**
+         * Разбирает значение {@code -Dapi.log} без учета регистра.
+         *
+         * @throws IllegalArgumentException если значение не совпадает ни с одним режимом; сообщение перечисляет допустимые.
+         */
+        static LogMode parse(String value) {
+            for (LogMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown -Dapi.log value '" + value + "', expected one of "
+                    + Arrays.stream(values()).map(mode -> mode.name().toLowerCase(Locale.ROOT)).toList());
+        }
+    }
+
+    /**
+     * Режим логирования, заданный через {@code -Dapi.log=off|failure|headers|all}. По умолчанию {@link LogMode#FAILURE}.
+     * Разбирается в {@link #configureLogging()}, а не в статическом инициализаторе: ошибка в значении свойства
+     * видна как сбой конфигурации с понятным сообщением, а не как {@link NoClassDefFoundError} каждого класса тестов.
+     */
+    protected static volatile LogMode logMode = LogMode.FAILURE;
+
+    /**
+     * Общий HTTP клиент с пулом соединений, см. {@link PooledHttpClient}.
+     */
+    protected static final PooledHttpClient HTTP_CLIENT = PooledHttpClient.fromSystemProperties();
+
+    /**
+     * Неблокирующий движок для {@link #performRequestAndVerifyAsync}, см. {@link AsyncHttpEngine}.
+     */
+    protected static final AsyncHttpEngine ASYNC_ENGINE = AsyncHttpEngine.fromSystemProperties();
+
+    /**
+     * Клиентский кэш ответов {@code GET /products} и {@code GET /products/{id}}, см. {@link ResponseCache}.
+     * {@code null}, если кэш не включен через {@code -Dhttp.cache=true}.
+     */
+    protected static final ResponseCache RESPONSE_CACHE = ResponseCache.fromSystemProperties();
+
+    /**
+     * Проверять успешные ответы по контрактам {@link ResponseSchemas}, включается через {@code -Dapi.schemas=true}.
+     * Проверка идет потоково по байтам ответа, поэтому ее можно оставлять включенной в нагрузочных прогонах.
+     */
+    protected static final boolean VALIDATE_SCHEMAS = Boolean.getBoolean("api.schemas");
+
+    /**
+     * Задержки всех запросов за прогон набора и бюджеты эндпоинтов из {@link LatencyBudget} и {@code -Dsla.config}.
+     */
+    protected static final SlaMonitor SLA = SlaMonitor.fromSystemProperties();
+
+    /**
+     * Получатели измерений фаз запросов, см. {@link #addMetricsListener}. Пока список пуст, запросы не инструментируются.
+     */
+    private static final List<MetricsListener> METRICS_LISTENERS = new CopyOnWriteArrayList<>();
+    private static final MetricsListener PUBLISH_METRICS = (endpoint, phase, elapsedNanos, allocatedBytes) -> {
+        for (MetricsListener listener : METRICS_LISTENERS) {
+            listener.onPhase(endpoint, phase, elapsedNanos, allocatedBytes);
+        }
+    };
+
+    /**
+     * Измерения фаз запросов за прогон. Подключается при {@code -Dmetrics.export=prometheus|json}
+     * и выгружается в файл в конце набора.
+     */
+    protected static final MetricsRegistry METRICS = new MetricsRegistry();
+
+    /**
+     * Общий потокобезопасный {@link ObjectMapper} для всех тестов.
+     * Создается один раз на JVM, чтобы не платить за интроспекцию классов и прогрев кэшей сериализаторов в каждом тесте.
+     */
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Ожидаемый статус для {@link #execute}, при котором статусный код не проверяется. */
+    private static final int ANY_STATUS = -1;
+
+    private static final int MAX_AUTHENTICATED_SPECS = 10_000;
+    private static final Map<String, RequestSpecification> AUTHENTICATED_SPECS = new ConcurrentHashMap<>();
+
+    /** Базовая спецификация запроса, собираемая один раз в {@link #setup()}. */
+    private static volatile RequestSpecification baseSpec;
+
+    private static final AtomicInteger USERNAME_SEQUENCE = new AtomicInteger();
+
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    static {
+        if (System.getProperty("metrics.export") != null) {
+            METRICS_LISTENERS.add(METRICS);
+        }
+        for (Class<?> type : List.of(User.class, NewProduct.class, UpdatedProduct.class, AddToCartRequest.class)) {
+            writerFor(type);
+        }
+        for (Class<?> type : List.of(Product.class, ShoppingCartResponse.class)) {
+            readerFor(type);
+        }
+    }
+
     protected String accessToken;
     protected String registeredUsername;
     protected String registeredPassword;
@@ -23,14 +201,337 @@ public class BaseTest {
 
 
     protected int productId;
+    /** Продукт, созданный {@link #bootstrapProduct(String)}. */
+    protected Product product;
+
+    /**
+     * Кэш токенов доступа по имени пользователя: повторные вызовы {@link #login()} не отправляют {@code /login},
+     * пока токен действителен. Запас до истечения срока задается {@code -Dauth.refreshMarginSeconds} (по умолчанию 30),
+     * срок жизни токенов без claim'а {@code exp} — {@code -Dauth.defaultTtlSeconds} (по умолчанию 300).
+     */
+    protected TokenCache tokenCache;
+
+    /**
+     * Разбирает режим логирования {@code -Dapi.log}.
+     *
+     * @throws IllegalArgumentException если значение не совпадает ни с одним режимом.
+     */
+    @BeforeSuite
+    public void configureLogging() {
+        logMode = LogMode.parse(System.getProperty("api.log", "failure"));
+    }
+
+    /**
+     * Поднимает встроенный сервер перед запуском набора тестов: in-memory реализацию API при {@code -Dapi.stub=true}
+     * или сервер, отдающий ответы из файла захвата, при {@code -Dapi.replay=file}.
+     * Позволяет гонять тесты локально, без сети и без зависимости от доступности удаленного хоста.
+     */
+    @BeforeSuite
+    public void startStub() throws IOException {
+        synchronized (BaseTest.class) {
+            if (stub == null) {
+                String replay = System.getProperty("api.replay");
+                if (replay != null) {
+                    stub = new ReplayStub(Path.of(replay));
+                } else if (Boolean.getBoolean("api.stub")) {
+                    stub = new ShopApiStub();
+                }
+                if (stub != null) {
+                    stub.start();
+                }
+            }
+        }
+    }
+
+    /**
+     * Включает запись всех запросов и ответов в файл, если задано {@code -Dapi.capture=file}.
+     */
+    @BeforeSuite
+    public void startCapture() throws IOException {
+        synchronized (BaseTest.class) {
+            String capture = System.getProperty("api.capture");
+            if (capture != null && recorder == null) {
+                recorder = new TrafficRecorder(Path.of(capture));
+            }
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void stopCapture() throws IOException {
+        synchronized (BaseTest.class) {
+            if (recorder != null) {
+                recorder.close();
+                recorder = null;
+            }
+        }
+    }
+
+    /**
+     * Выгружает измерения фаз запросов в формате {@code -Dmetrics.export} в файл {@code -Dmetrics.file}
+     * (по умолчанию {@code target/client-metrics.prom} или {@code target/client-metrics.json}).
+     */
+    @AfterSuite(alwaysRun = true)
+    public void exportMetrics() {
+        String format = System.getProperty("metrics.export");
+        if (format != null) {
+            Path file = Path.of(System.getProperty("metrics.file",
+                    "target/client-metrics." + ("prometheus".equalsIgnoreCase(format) ? "prom" : "json")));
+            METRICS.export(format, file);
+            System.out.println("Client metrics: " + file.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Подключает получателя измерений фаз запросов: сериализации, соединения, ожидания первого байта,
+     * чтения и разбора ответа. Получатель действует для всех классов тестов до конца прогона.
+     */
+    protected static void addMetricsListener(MetricsListener listener) {
+        METRICS_LISTENERS.add(listener);
+    }
+
+    /**
+     * Печатает статистику пула соединений по окончании набора тестов.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void reportConnectionPool() {
+        System.out.println("HTTP connection pool: " + HTTP_CLIENT.stats());
+    }
+
+    /**
+     * Печатает долю попаданий, перепроверок с ответом 304 и промахов клиентского кэша, если он включен.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void reportResponseCache() {
+        if (RESPONSE_CACHE != null) {
+            System.out.println("HTTP response cache: " + RESPONSE_CACHE.stats());
+        }
+    }
+
+    /**
+     * Регистрирует бюджеты задержек, объявленные на классе тестов и на запускаемом методе.
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void registerLatencyBudgets(Method method) {
+        SLA.addBudgets(getClass().getAnnotationsByType(LatencyBudget.class));
+        SLA.addBudgets(method.getAnnotationsByType(LatencyBudget.class));
+    }
+
+    /**
+     * Проверяет задержки эндпоинтов по бюджетам и пишет JSON сводку в {@code -Dsla.report}
+     * (по умолчанию {@code target/sla-summary.json}). Нарушение бюджета проваливает набор,
+     * если не задано {@code -Dsla.enforce=false}.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void verifyLatencyBudgets() {
+        SlaMonitor.Summary summary = SLA.evaluate();
+        Path report = Path.of(System.getProperty("sla.report", "target/sla-summary.json"));
+        summary.writeJson(report);
+        System.out.println("SLA summary: " + report.toAbsolutePath());
+        if (!summary.getBreaches().isEmpty()) {
+            String breaches = "Latency budgets breached:\n  " + String.join("\n  ", summary.getBreaches());
+            if (Boolean.parseBoolean(System.getProperty("sla.enforce", "true"))) {
+                throw new AssertionError(breaches);
+            }
+            System.out.println(breaches);
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void stopStub() {
+        synchronized (BaseTest.class) {
+            if (stub != null) {
+                stub.stop();
+                stub = null;
+            }
+        }
+    }
+
     /**
      * Инициализирует базовые настройки для всех тестов.
-     * Устанавливает базовый URI сервиса для отправки HTTP запросов.
+     * Устанавливает базовый URI сервиса для отправки HTTP запросов: адрес встроенного сервера,
+     * если он запущен, иначе значение {@code -Dapi.baseUri} или удаленный сервис по умолчанию.
      */
     @BeforeClass
     public void setup() {
-        RestAssured.baseURI = "http://9b142cdd34e.vps.myjino.ru:49268";
+        RestAssuredConfig config = RestAssuredConfig.config()
+                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig().jackson2ObjectMapperFactory((type, charset) -> MAPPER))
+                .httpClient(HTTP_CLIENT.httpClientConfig());
+        if (logMode == LogMode.FAILURE) {
+            config = config.logConfig(LogConfig.logConfig().enableLoggingOfRequestAndResponseIfValidationFails());
+        }
+        RestAssured.config = config;
+        RestAssured.baseURI = stub != null ? stub.baseUri() : System.getProperty("api.baseUri", REMOTE_BASE_URI);
+        // Кэш создается здесь, а не в инициализаторе поля, чтобы ссылка на недостроенный объект не уходила в кэш
+        tokenCache = new TokenCache(this::requestToken,
+                Duration.ofSeconds(Long.getLong("auth.refreshMarginSeconds", 30)),
+                Duration.ofSeconds(Long.getLong("auth.defaultTtlSeconds", 300)));
+
+        // Спецификации строятся после настройки RestAssured, так как фиксируют baseURI и конфигурацию
+        RequestSpecBuilder builder = new RequestSpecBuilder().addHeader("Content-Type", "application/json");
+        switch (logMode) {
+            case HEADERS -> builder.log(LogDetail.HEADERS);
+            case ALL -> builder.log(LogDetail.ALL);
+            case FAILURE, OFF -> { }
+        }
+        baseSpec = builder.build();
+        AUTHENTICATED_SPECS.clear();
     }
+
+    /**
+     * Возвращает закэшированную спецификацию запроса с заголовком {@code Authorization} для указанного токена.
+     * Кэш ограничен {@link #MAX_AUTHENTICATED_SPECS} записями и очищается целиком при переполнении.
+     */
+    private static RequestSpecification authenticatedSpec(String accessToken) {
+        RequestSpecification spec = AUTHENTICATED_SPECS.get(accessToken);
+        if (spec == null) {
+            if (AUTHENTICATED_SPECS.size() >= MAX_AUTHENTICATED_SPECS) {
+                AUTHENTICATED_SPECS.clear();
+            }
+            spec = AUTHENTICATED_SPECS.computeIfAbsent(accessToken, token -> new RequestSpecBuilder()
+                    .addRequestSpecification(baseSpec)
+                    .addHeader("Authorization", "Bearer " + token)
+                    .build());
+        }
+        return spec;
+    }
+
+    /**
+     * Генерирует уникальное имя пользователя, в том числе для классов тестов, запущенных параллельно.
+     */
+    protected static String uniqueUsername() {
+        return "user" + Instant.now().getEpochSecond() + USERNAME_SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * Фикстура: регистрирует нового пользователя и получает для него токен доступа.
+     * Позволяет каждому классу тестов работать со своим пользователем независимо от остальных.
+     */
+    protected void bootstrapUser() {
+        registeredUsername = uniqueUsername();
+        registeredPassword = "password";
+        user = new User(registeredUsername, registeredPassword);
+        performRequestAndVerify("POST", "/register", user, null, 201);
+        login();
+    }
+
+    /**
+     * Фикстура: создает собственный продукт класса и сохраняет его в {@link #product}, а идентификатор — в {@link #productId}.
+     * Классы, выполняемые параллельно, не делят продукты каталога, поэтому обновление или удаление продукта одним классом
+     * не влияет на цены и корзины другого. Требует токен {@link #bootstrapUser()}; продукт удаляется
+     * {@link #deleteBootstrappedProduct()}.
+     */
+    protected void bootstrapProduct(String name) {
+        NewProduct created = new NewProduct(name, "Electronics", 10.0, 10);
+        Response response = performRequestAndVerify("POST", "/products", created, accessToken, 201);
+        Integer id = response.path("product_id");
+        assertNotNull(id, "Created product id should not be null");
+        productId = id;
+        product = new Product(productId, created.getName(), created.getCategory(), created.getPrice(),
+                created.getDiscount(), 0);
+    }
+
+    /**
+     * Удаляет продукт, созданный {@link #bootstrapProduct(String)}, если он был создан.
+     */
+    protected void deleteBootstrappedProduct() {
+        if (product != null) {
+            performRequestAndVerify("DELETE", "/products/" + productId, null, accessToken, 200);
+            product = null;
+        }
+    }
+
+    /**
+     * Получает токен пользователя {@link #user} из {@link #tokenCache} и сохраняет его в {@link #accessToken}.
+     * Запрос {@code /login} отправляется, только если в кэше нет действующего токена.
+     */
+    protected void login() {
+        accessToken = tokenCache.getToken(user);
+    }
+
+    /**
+     * Выполняет вход пользователя и возвращает полученный токен доступа.
+     */
+    protected String requestToken(User user) {
+        Response response = performRequestAndVerify("POST", "/login", user, null, 200);
+        String token = deserialize(() -> response.path("access_token"));
+        assertNotNull(token, "Access token should not be null");
+        return token;
+    }
+
+    /**
+     * Возвращает закэшированный {@link ObjectWriter} для указанного типа модели.
+     */
+    protected static ObjectWriter writerFor(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+    }
+
+    /**
+     * Возвращает закэшированный {@link ObjectReader} для указанного типа модели.
+     */
+    protected static ObjectReader readerFor(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /**
+     * Разбирает тело ответа, измеряя разбор как фазу {@link Phase#DESERIALIZATION} последнего запроса потока.
+     *
+     * @param reader Разбор ответа, например {@code () -> response.jsonPath().getList("", Product.class)}.
+     */
+    protected static <T> T deserialize(Supplier<T> reader) {
+        PhaseClock clock = METRICS_LISTENERS.isEmpty() ? null : PhaseClock.current();
+        return clock == null ? reader.get() : clock.measure(Phase.DESERIALIZATION, reader);
+    }
+
+    /**
+     * Разбирает тело ответа в объект модели закэшированным {@link ObjectReader}.
+     *
+     * @throws UncheckedIOException если тело ответа не удалось разобрать.
+     */
+    protected static <T> T readBody(Response response, Class<T> type) {
+        return deserialize(() -> {
+            try {
+                return readerFor(type).readValue(response.asByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Сериализует объект модели в JSON байты с помощью закэшированного {@link ObjectWriter}.
+     *
+     * @param body Объект для сериализации.
+     * @return JSON представление объекта в UTF-8.
+     * @throws UncheckedIOException если объект не удалось сериализовать.
+     */
+    protected static byte[] toJson(Object body) {
+        try {
+            return writerFor(body.getClass()).writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Выполняет HTTP запрос аналогично {@link #performRequestAndVerify(String, String, Object, String, int)},
+     * но не проверяет статусный код: для режимов, которые сами учитывают ответы по статусам.
+     */
+    protected Response performRequest(String method, String path, Object body, String accessToken) {
+        PhaseClock clock = startClock(method, path);
+        return execute(method, path, body == null ? null : toJson(body), accessToken, ANY_STATUS, clock, true);
+    }
+
+    /**
+     * Выполняет HTTP запрос аналогично {@link #performRequestAndVerify(String, String, String, String, int)},
+     * но принимает тело запроса в виде объекта модели и сериализует его сразу в байты.
+     *
+     * @param body Объект модели для тела запроса. Если тело запроса не требуется, передать {@code null}.
+     */
+    protected Response performRequestAndVerify(String method, String path, Object body, String accessToken, int expectedStatusCode) {
+        PhaseClock clock = startClock(method, path);
+        return execute(method, path, body == null ? null : toJson(body), accessToken, expectedStatusCode, clock, true);
+    }
+
     /**
      * Выполняет HTTP запрос к заданному эндпоинту с указанным методом, телом запроса и токеном аутентификации.
      * Автоматически проверяет, что ответ от сервера соответствует ожидаемому статусному коду.
@@ -45,17 +546,49 @@ public class BaseTest {
      * @throws IllegalArgumentException если указан неизвестный или неподдерживаемый HTTP метод.
      */
     protected Response performRequestAndVerify(String method, String path, String body, String accessToken, int expectedStatusCode) {
-        RequestSpecification request = given()
-                .header("Content-Type", "application/json")
-                .log().all();
+        PhaseClock clock = startClock(method, path);
+        return execute(method, path, body == null ? null : body.getBytes(StandardCharsets.UTF_8), accessToken,
+                expectedStatusCode, clock, true);
+    }
 
-        if (accessToken != null) {
-            request.header("Authorization", "Bearer " + accessToken);
+    /**
+     * Запускает секундомер фаз запроса, если подключен хотя бы один {@link MetricsListener}.
+     */
+    private static PhaseClock startClock(String method, String path) {
+        return METRICS_LISTENERS.isEmpty() ? null : PhaseClock.start(PUBLISH_METRICS, method, path);
+    }
+
+    /**
+     * Если включен {@link #RESPONSE_CACHE}, свежий ответ на кэшируемый {@code GET} отдается без запроса к серверу
+     * (и не попадает ни в SLA, ни в захват трафика), а устаревший перепроверяется условным запросом.
+     * <p>
+     * Если запрос с закэшированным токеном пользователя {@link #user} получил неожиданный 401, токен отозван сервером
+     * раньше срока: он удаляется из {@link #tokenCache}, а запрос один раз повторяется с новым токеном.
+     *
+     * @param retryRejectedToken Разрешить повтор после 401; {@code false} для самого повтора.
+     */
+    private Response execute(String method, String path, byte[] body, String accessToken, int expectedStatusCode,
+                             PhaseClock clock, boolean retryRejectedToken) {
+        ResponseCache.Entry cached = null;
+        if (RESPONSE_CACHE != null && ResponseCache.isCacheable(method, path)) {
+            cached = RESPONSE_CACHE.lookup(path);
+            if (cached != null && cached.isFresh()) {
+                return verify(RESPONSE_CACHE.serve(cached), expectedStatusCode);
+            }
+        }
+        if (clock != null && body != null) {
+            clock.mark(Phase.SERIALIZATION);
         }
+        long startedMicros = recorder == null ? 0 : currentTimeMicros();
+        long start = System.nanoTime();
+        RequestSpecification request = given(accessToken == null ? baseSpec : authenticatedSpec(accessToken));
 
         if (body != null) {
             request.body(body);
         }
+        if (cached != null) {
+            cached.validators().forEach(request::header);
+        }
 
         Response response;
         switch (method) {
@@ -74,9 +607,175 @@ public class BaseTest {
             default:
                 throw new IllegalArgumentException("Unsupported method: " + method);
         }
+        // Дочитываем тело сразу: иначе соединение остается занятым в пуле, пока тест не прочитает ответ
+        response.asByteArray();
+        long elapsedNanos = System.nanoTime() - start;
+        if (clock != null) {
+            clock.finish();
+        }
+        SLA.record(method, path, elapsedNanos);
+        capture(startedMicros, method, path, body, accessToken, cached == null ? List.of() : cached.validators(),
+                response, elapsedNanos);
+        verifyContract(method, path, response);
+        if (RESPONSE_CACHE != null) {
+            if (ResponseCache.isCacheable(method, path)) {
+                response = RESPONSE_CACHE.onResponse(path, cached, response);
+            } else {
+                RESPONSE_CACHE.invalidate(method, path);
+            }
+        }
+        if (retryRejectedToken && response.getStatusCode() == 401 && expectedStatusCode != 401 && accessToken != null
+                && user != null && tokenCache.invalidate(user.getUsername(), accessToken)) {
+            String refreshed = tokenCache.getToken(user);
+            if (accessToken.equals(this.accessToken)) {
+                this.accessToken = refreshed;
+            }
+            return execute(method, path, body, refreshed, expectedStatusCode, null, false);
+        }
+        return verify(response, expectedStatusCode);
+    }
+
+    /**
+     * Проверяет успешный ответ по схеме его эндпоинта, если включен {@link #VALIDATE_SCHEMAS}.
+     *
+     * @throws AssertionError если тело ответа не соответствует контракту.
+     */
+    private static void verifyContract(String method, String path, Response response) {
+        if (!VALIDATE_SCHEMAS || response.getStatusCode() / 100 != 2) {
+            return;
+        }
+        JsonSchema schema = ResponseSchemas.forRequest(method, path);
+        String violation = schema == null ? null : schema.validate(response.asByteArray());
+        if (violation != null) {
+            throw new AssertionError("Response of " + method + " " + path + " violates contract " + violation);
+        }
+    }
 
-        response.then().log().all().statusCode(expectedStatusCode);
+    private static Response verify(Response response, int expectedStatusCode) {
+        ValidatableResponse validatableResponse = response.then();
+        // Режим FAILURE включен через LogConfig в setup() и логирует запрос вместе с ответом
+        switch (logMode) {
+            case HEADERS -> validatableResponse.log().headers();
+            case ALL -> validatableResponse.log().all();
+            case FAILURE, OFF -> { }
+        }
+        if (expectedStatusCode != ANY_STATUS) {
+            validatableResponse.statusCode(expectedStatusCode);
+        }
 
         return response;
     }
+
+    /**
+     * Асинхронный вариант {@link #performRequestAndVerify(String, String, String, String, int)}.
+     * Запрос отправляется неблокирующим {@link AsyncHttpEngine}, поток вызывающего не ждет ответа.
+     * Если статусный код ответа отличается от ожидаемого, future завершается исключительно с причиной
+     * {@link AssertionError}: {@code join()} выбрасывает {@link java.util.concurrent.CompletionException},
+     * а {@code get()} — {@link java.util.concurrent.ExecutionException}, у которых {@code getCause()} — это
+     * {@link AssertionError}; в {@code exceptionally}/{@code handle} зависимых стадий приходит тоже обертка.
+     *
+     * @return Future с ответом ({@link Response}) сервера.
+     * @throws IllegalArgumentException если указан неизвестный или неподдерживаемый HTTP метод.
+     */
+    protected CompletableFuture<Response> performRequestAndVerifyAsync(String method, String path, String body,
+                                                                      String accessToken, int expectedStatusCode) {
+        PhaseClock clock = startClock(method, path);
+        return executeAsync(method, path, body == null ? null : body.getBytes(StandardCharsets.UTF_8), accessToken,
+                expectedStatusCode, clock);
+    }
+
+    /**
+     * Асинхронный вариант {@link #performRequestAndVerify(String, String, Object, String, int)},
+     * принимающий тело запроса в виде объекта модели.
+     */
+    protected CompletableFuture<Response> performRequestAndVerifyAsync(String method, String path, Object body,
+                                                                      String accessToken, int expectedStatusCode) {
+        PhaseClock clock = startClock(method, path);
+        return executeAsync(method, path, body == null ? null : toJson(body), accessToken, expectedStatusCode, clock);
+    }
+
+    /**
+     * У {@link java.net.http.HttpClient} нет точки для отметки соединения, поэтому фаза {@link Phase#TTFB}
+     * асинхронного запроса включает и установку соединения. Асинхронные запросы не обслуживаются из
+     * {@link #RESPONSE_CACHE}, но изменяющие запросы сбрасывают его записи.
+     */
+    private CompletableFuture<Response> executeAsync(String method, String path, byte[] body, String accessToken,
+                                                     int expectedStatusCode, PhaseClock clock) {
+        if (clock != null && body != null) {
+            clock.mark(Phase.SERIALIZATION);
+        }
+        switch (method) {
+            case "GET", "POST", "PUT", "DELETE" -> { }
+            default -> throw new IllegalArgumentException("Unsupported method: " + method);
+        }
+        URI uri = URI.create(RestAssured.baseURI + path);
+        long startedMicros = recorder == null ? 0 : currentTimeMicros();
+        long start = System.nanoTime();
+        Runnable onHeaders = clock == null ? null : () -> clock.mark(Phase.TTFB);
+        return ASYNC_ENGINE.send(method, uri, body, accessToken, onHeaders).thenApply(response -> {
+            long elapsedNanos = System.nanoTime() - start;
+            if (clock != null) {
+                clock.finish();
+            }
+            SLA.record(method, path, elapsedNanos);
+            capture(startedMicros, method, path, body, accessToken, List.of(), response, elapsedNanos);
+            verifyContract(method, path, response);
+            if (RESPONSE_CACHE != null) {
+                RESPONSE_CACHE.invalidate(method, path);
+            }
+            boolean failed = response.getStatusCode() != expectedStatusCode;
+            if (logMode == LogMode.ALL || logMode == LogMode.HEADERS || (failed && logMode == LogMode.FAILURE)) {
+                System.out.println(describeExchange(method, uri, body, response, logMode != LogMode.HEADERS));
+            }
+            if (failed) {
+                throw new AssertionError("Expected status code <" + expectedStatusCode + "> but was <"
+                        + response.getStatusCode() + "> for " + method + " " + path + ".");
+            }
+            return response;
+        });
+    }
+
+    private static String describeExchange(String method, URI uri, byte[] body, Response response, boolean withBodies) {
+        StringBuilder exchange = new StringBuilder()
+                .append("Request method:\t").append(method).append('\n')
+                .append("Request URI:\t").append(uri).append('\n');
+        if (withBodies && body != null) {
+            exchange.append("Body:\n").append(new String(body, StandardCharsets.UTF_8)).append('\n');
+        }
+        exchange.append(response.getStatusLine()).append('\n').append(response.getHeaders()).append('\n');
+        if (withBodies) {
+            exchange.append(response.asString()).append('\n');
+        }
+        return exchange.toString();
+    }
+
+    /**
+     * Записывает пару запрос/ответ в файл захвата, если захват включен.
+     *
+     * @param conditionalHeaders Заголовки условного запроса; по ним {@link ReplayStub} отличает перепроверку от обычного запроса.
+     */
+    private static void capture(long startedMicros, String method, String path, byte[] body, String accessToken,
+                                List<Header> conditionalHeaders, Response response, long elapsedNanos) {
+        TrafficRecorder current = recorder;
+        if (current == null) {
+            return;
+        }
+        Map<String, String> requestHeaders = new LinkedHashMap<>();
+        requestHeaders.put("Content-Type", "application/json");
+        if (accessToken != null) {
+            requestHeaders.put("Authorization", "Bearer " + accessToken);
+        }
+        conditionalHeaders.forEach(header -> requestHeaders.put(header.getName(), header.getValue()));
+        Map<String, String> responseHeaders = new LinkedHashMap<>();
+        response.getHeaders().forEach(header -> responseHeaders.putIfAbsent(header.getName(), header.getValue()));
+        current.record(new TrafficRecord(startedMicros, method, path, requestHeaders,
+                body == null ? null : new String(body, StandardCharsets.UTF_8),
+                response.getStatusCode(), responseHeaders, response.asString(),
+                TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+    }
+
+    private static long currentTimeMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
 }
@@ -0,0 +1,212 @@
+import io.restassured.response.Response;
+import load.LatencyStats;
+import load.VirtualUserSession;
+import model.AddToCartRequest;
+import model.NewProduct;
+import model.Product;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import validation.CartModel;
+import validation.ProductTable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Конкурентные добавления и удаления одних и тех же "горячих" продуктов из корзин многих пользователей.
+ * K сессий регистрируются заранее, затем одновременно стартуют с {@link CyclicBarrier} и выполняют по
+ * {@code -Dcontention.operations} операций: случайный горячий продукт добавляется в корзину или, если он уже там,
+ * с вероятностью 1/2 удаляется. Каждая сессия ведет {@link CartModel}; после неудачной мутации модель сверяется
+ * с сервером заново. В конце корзина каждой сессии сравнивается с моделью, печатаются пропускная способность
+ * и перцентили задержек под конкуренцией.
+ * <p>
+ * Горячие продукты тест создает сам и удаляет после прогона, поэтому классы, параллельно обновляющие и удаляющие
+ * продукты каталога, не меняют цены в моделях и не вызывают ложных неудач добавления.
+ * <p>
+ * Включается через {@code -Dcontention.sessions=K}; число горячих продуктов задается
+ * {@code -Dcontention.hotProducts} (по умолчанию 1), число операций на сессию — {@code -Dcontention.operations}
+ * (по умолчанию 100), seed выбора операций — {@code -Dcontention.seed}. Без {@code -Dcontention.sessions} тест пропускается.
+ */
+public class CartContentionTest extends BaseTest {
+
+    /** Сколько расхождений корзины с моделью печатать подробно. */
+    private static final int REPORTED_CART_MISMATCHES = 10;
+
+    private final LongAdder failedMutations = new LongAdder();
+
+    @Test
+    public void contendForHotProducts() throws IOException {
+        int sessions = Integer.getInteger("contention.sessions", 0);
+        if (sessions <= 0) {
+            throw new SkipException("Cart contention mode is disabled, set -Dcontention.sessions=K to enable it");
+        }
+        int hotProductCount = Integer.getInteger("contention.hotProducts", 1);
+        int operations = Integer.getInteger("contention.operations", 100);
+        long seed = Long.getLong("contention.seed", 42);
+
+        assertTrue(hotProductCount > 0, "contention.hotProducts should be positive");
+        bootstrapUser();
+        List<Product> hotProducts = new ArrayList<>(hotProductCount);
+        try {
+            for (int i = 0; i < hotProductCount; i++) {
+                hotProducts.add(createHotProduct(i));
+            }
+            runContention(hotProducts, sessions, operations, seed);
+        } finally {
+            for (Product product : hotProducts) {
+                performRequestAndVerify("DELETE", "/products/" + product.getId(), null, accessToken, 200);
+            }
+        }
+    }
+
+    /**
+     * Создает горячий продукт; цены различаются, чтобы перепутанные позиции давали расхождение итогов.
+     */
+    private Product createHotProduct(int index) {
+        NewProduct created = new NewProduct("Hot Product " + index, "Electronics", 10.0 + index, 10);
+        Response response = performRequestAndVerify("POST", "/products", created, accessToken, 201);
+        Integer id = response.path("product_id");
+        assertNotNull(id, "Created product id should not be null");
+        return new Product(id, created.getName(), created.getCategory(), created.getPrice(), created.getDiscount(), 0);
+    }
+
+    /**
+     * Регистрирует сессии, одновременно запускает их операции с корзиной и сверяет итоговые корзины с моделями.
+     */
+    private void runContention(List<Product> hotProducts, int sessions, int operations, long seed) throws IOException {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<VirtualUserSession> users = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            users.add(new VirtualUserSession("contention-" + runId + "-" + i, "password"));
+        }
+        // Регистрация и вход не входят в измерение: под конкуренцией должны оказаться только операции с корзиной
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (VirtualUserSession session : users) {
+                executor.submit(() -> {
+                    performRequestAndVerify("POST", "/register", session.getUser(), null, 201);
+                    session.setAccessToken(tokenCache.getToken(session.getUser()));
+                });
+            }
+        }
+
+        LatencyStats stats = new LatencyStats();
+        AtomicLong started = new AtomicLong();
+        CyclicBarrier barrier = new CyclicBarrier(sessions, () -> started.set(System.nanoTime()));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                VirtualUserSession session = users.get(i);
+                Random random = new Random(seed + i);
+                executor.submit(() -> contend(session, hotProducts, barrier, stats, operations, random));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started.get();
+
+        int mismatches = 0;
+        int unverifiable = 0;
+        for (VirtualUserSession session : users) {
+            if (session.getAccessToken() == null || session.getCart().isUnknown()) {
+                unverifiable++;
+                continue;
+            }
+            Response cart = performRequestAndVerify("GET", "/cart", null, session.getAccessToken(), 200);
+            String mismatch = session.getCart().verify(ProductTable.readCart(cart.asInputStream()));
+            if (mismatch != null && ++mismatches <= REPORTED_CART_MISMATCHES) {
+                System.out.println("Cart mismatch for " + session.getUsername() + ": " + mismatch);
+            }
+        }
+
+        System.out.printf("Cart contention: %d sessions on %d hot products, %d requests in %.1f s (%.1f req/s), "
+                        + "%d failed mutations, %d cart mismatches, %d carts not verified%n%s",
+                sessions, hotProducts.size(), stats.totalRequests(), elapsedNanos / 1e9,
+                stats.totalRequests() / (elapsedNanos / 1e9), failedMutations.sum(), mismatches, unverifiable,
+                stats.report(elapsedNanos));
+        assertTrue(stats.totalRequests() > 0, "Contention run should send at least one request");
+        assertEquals(unverifiable, 0, "Every cart should be verified against its model");
+        assertEquals(mismatches, 0, "Every cart should match the expected cart model after contention");
+    }
+
+    /**
+     * Выполняет операции одной сессии после общего старта. Неудачная мутация могла быть применена сервером,
+     * поэтому модель сразу перестраивается по {@code GET /cart}.
+     */
+    private void contend(VirtualUserSession session, List<Product> hotProducts, CyclicBarrier barrier,
+                         LatencyStats stats, int operations, Random random) {
+        try {
+            barrier.await();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            return;
+        }
+        if (session.getAccessToken() == null) {
+            return;
+        }
+        CartModel cart = session.getCart();
+        for (int i = 0; i < operations; i++) {
+            Product product = hotProducts.get(random.nextInt(hotProducts.size()));
+            boolean succeeded;
+            if (cart.contains(product.getId()) && random.nextBoolean()) {
+                succeeded = timed(stats, "DELETE", "/cart/{id}", "/cart/" + product.getId(), null,
+                        session.getAccessToken(), 200) != null;
+                if (succeeded) {
+                    cart.remove(product.getId());
+                }
+            } else {
+                AddToCartRequest request = new AddToCartRequest(product.getId(), 1 + random.nextInt(3));
+                succeeded = timed(stats, "POST", "/cart", "/cart", request, session.getAccessToken(), 201) != null;
+                if (succeeded) {
+                    cart.add(product.getId(), product.getPrice(), product.getDiscount(), request.getQuantity());
+                }
+            }
+            if (!succeeded) {
+                failedMutations.increment();
+                cart.markUnknown();
+                resync(session, stats);
+            }
+        }
+    }
+
+    /**
+     * Перестраивает модель корзины по ответу сервера; при ошибке модель остается помеченной как неизвестная.
+     */
+    private void resync(VirtualUserSession session, LatencyStats stats) {
+        Response response = timed(stats, "GET", "/cart", "/cart", null, session.getAccessToken(), 200);
+        if (response != null) {
+            try {
+                session.getCart().verify(ProductTable.readCart(response.asInputStream()));
+            } catch (IOException e) {
+                // Модель остается неизвестной и перестроится при следующей неудаче
+            }
+        }
+    }
+
+    /**
+     * Выполняет запрос через {@link #performRequestAndVerify} и записывает его длительность.
+     *
+     * @param endpoint Шаблон пути для группировки в статистике.
+     * @return Ответ сервера либо {@code null}, если запрос завершился ошибкой.
+     */
+    private Response timed(LatencyStats stats, String method, String endpoint, String path, Object body,
+                           String accessToken, int expectedStatusCode) {
+        long start = System.nanoTime();
+        try {
+            Response response = performRequestAndVerify(method, path, body, accessToken, expectedStatusCode);
+            stats.record(method, endpoint, System.nanoTime() - start, false);
+            return response;
+        } catch (AssertionError | RuntimeException e) {
+            stats.record(method, endpoint, System.nanoTime() - start, true);
+            return null;
+        }
+    }
+}
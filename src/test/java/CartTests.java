@@ -0,0 +1,194 @@
+import io.restassured.response.Response;
+
+import model.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import sla.LatencyBudget;
+import validation.CartModel;
+import validation.ProductTable;
+import validation.ResponseSchemas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Тесты корзины покупок.
+ * Перед запуском регистрирует собственного пользователя и создает собственный продукт,
+ * поэтому не зависит от других классов тестов; продукт удаляется после класса.
+ */
+@LatencyBudget(endpoint = "GET /cart", millis = 2000)
+@LatencyBudget(endpoint = "POST /cart", millis = 2000)
+public class CartTests extends BaseTest {
+
+    /** Ожидаемое содержимое корзины пользователя класса, обновляется на каждое добавление и удаление. */
+    private final CartModel expectedCart = new CartModel();
+
+    @BeforeClass
+    public void bootstrap() {
+        bootstrapUser();
+        bootstrapProduct("Cart Tests Product");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteProduct() {
+        deleteBootstrappedProduct();
+    }
+
+
+    /**
+     * Тестирование получения информации о корзине покупок.
+     * Метод выполняет аутентификацию пользователя и отправляет GET запрос на эндпоинт "/cart",
+     * ожидая получить информацию о содержимом корзины пользователя включая общую стоимость и скидку.
+     * Проверяется, что ответ содержит корректные поля total_price и total_discount с числовыми значениями,
+     * а также проверяется структура и типы данных каждого продукта в корзине, подтверждая наличие товаров,
+     * их идентификаторы, названия, категории, цены и скидки.
+     *
+     * @throws AssertionError если ответ API не содержит ожидаемую структуру данных или типы данных
+     *                        не соответствуют ожидаемым.
+     */
+    @Test(priority = 14)
+    public void GetShoppingCartTest() {
+        login();
+        Response response = performRequestAndVerify("GET", "/cart", null, accessToken, 200);
+
+        // Десериализация JSON-ответа в объект ShoppingCartResponse закэшированным ObjectReader
+        ShoppingCartResponse shoppingCartResponse = readBody(response, ShoppingCartResponse.class);
+
+        // Проверяем, что содержимое и итоги корзины совпадают с ожидаемыми по выполненным добавлениям и удалениям
+        String mismatch = expectedCart.verify(shoppingCartResponse);
+        assertNull(mismatch, "Cart should match the expected model: " + mismatch);
+
+        // Типы и обязательные поля корзины и ее позиций проверяются контрактом за один проход по байтам ответа
+        String violation = ResponseSchemas.CART.validate(response.asByteArray());
+        assertNull(violation, "Cart should match its contract: " + violation);
+
+        assertThat(shoppingCartResponse.getCart(), is(not(empty())));
+    }
+
+
+    /**
+     * Тестирование согласованности корзины покупок на любом ее размере.
+     * Метод выполняет аутентификацию пользователя и отправляет GET запрос на эндпоинт "/cart", читая ответ потоково
+     * в колоночную {@link ProductTable} без построения списка объектов. Затем массово проверяется, что у всех позиций
+     * положительные идентификаторы, цены и количества, а total_price равен сумме price * quantity по позициям,
+     * и корзина сверяется с ожидаемой моделью по каждой позиции и итогам.
+     *
+     * @throws AssertionError если корзина пуста, содержит некорректную позицию, итоги не совпадают с позициями
+     *                        или корзина отличается от ожидаемой.
+     */
+    @Test(priority = 14)
+    public void ShoppingCartTotalsMatchLinesTest() {
+        login();
+        Response response = performRequestAndVerify("GET", "/cart", null, accessToken, 200);
+
+        ProductTable.Cart cart = deserialize(() -> {
+            try {
+                return ProductTable.readCart(response.asInputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        ProductTable lines = cart.getLines();
+
+        assertTrue(lines.size() > 0, "Cart should not be empty");
+        assertTrue(lines.allIdsPositive() && lines.allPricesPositive() && lines.allQuantitiesPositive(),
+                "Cart should contain only valid lines, first invalid: " + lines.indexOfFirstInvalid());
+        // Допуск на округление итогов сервером до копеек
+        assertTrue(cart.totalPriceMatches(0.01 * lines.size()),
+                "total_price " + cart.getTotalPrice() + " should equal sum(price * quantity) " + lines.sumPriceTimesQuantity());
+        String mismatch = expectedCart.verify(cart);
+        assertNull(mismatch, "Cart should match the expected model: " + mismatch);
+    }
+
+
+    /**
+     * Тестирование попытки получения информации о корзине покупок без аутентификации.
+     * Метод отправляет GET запрос на эндпоинт "/cart" без аутентификационного токена,
+     * ожидая, что доступ к содержимому корзины будет ограничен для неавторизованных пользователей.
+     * Ожидается, что API вернет статусный код 401 (Unauthorized), указывая на то, что
+     * доступ к запрашиваемой информации требует предварительной аутентификации пользователя.
+     */
+    @Test(priority = 15)
+
+    public void GetShoppingCartWithoutAuthorizationTest() {
+        performRequestAndVerify("GET", "/cart", null, null, 401);
+    }
+
+    /**
+     * Тестирование добавления продукта в корзину покупок.
+     * Метод сначала аутентифицирует пользователя, затем создает JSON тело запроса,
+     * содержащее идентификатор продукта и количество добавляемых единиц этого продукта.
+     * После этого отправляется POST запрос на эндпоинт "/cart" с указанным телом запроса и аутентификационным токеном.
+     * Ожидается, что API успешно обработает запрос, добавит указанный продукт в корзину пользователя
+     * и вернет статусный код 201 (Created), подтверждая успешное добавление продукта в корзину.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого 201,
+     *                        что указывало бы на некорректную обработку запроса добавления продукта в корзину.
+     */
+    @Test(priority = 12)
+    public void AddProductToCartTest() {
+
+        addToCartRequest = new AddToCartRequest(productId, 2);
+
+        login();
+        performRequestAndVerify("POST", "/cart", addToCartRequest, accessToken, 201);
+        expectedCart.add(productId, product.getPrice(), product.getDiscount(), addToCartRequest.getQuantity());
+    }
+
+    /**
+     * Тестирование попытки добавления продукта в корзину без аутентификации.
+     * Этот метод формирует JSON тело запроса для добавления определенного продукта (указанного через переменную productId)
+     * в корзину, но отправляет POST запрос на эндпоинт "/cart" без аутентификационного токена.
+     * Такой запрос должен быть отклонен API с возвращением статусного кода 401 (Unauthorized),
+     * указывая на необходимость аутентификации пользователя для выполнения данной операции.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого 401,
+     *                        что указывало бы на ошибку в механизме контроля доступа API.
+     */
+    @Test(priority = 13)
+
+    public void AddProductToCartWithoutAuthorizationTest() {
+
+        performRequestAndVerify("POST", "/cart", addToCartRequest, null, 401);
+
+    }
+
+    /**
+     * Тестирование удаления продукта из корзины покупок.
+     * Метод сначала аутентифицирует пользователя, а затем отправляет DELETE запрос на эндпоинт "/cart/{productId}",
+     * используя аутентификационный токен, для удаления конкретного продукта из корзины покупок.
+     * Ожидается, что API успешно обработает запрос и вернет статусный код 200 (OK),
+     * подтверждая успешное удаление продукта из корзины.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого 200,
+     *                        что указывало бы на некорректную обработку запроса удаления продукта из корзины.
+     */
+    @Test(priority = 16)
+
+    public void RemoveProductFromCartTest() {
+        login();
+        performRequestAndVerify("DELETE", "/cart/" + productId, null, accessToken, 200);
+        expectedCart.remove(productId);
+    }
+
+    /**
+     * Тестирование попытки удаления продукта из корзины без аутентификации.
+     * Этот метод отправляет DELETE запрос на эндпоинт "/cart/{productId}" без использования аутентификационного токена.
+     * Такой запрос должен быть отклонен API с возвращением статусного кода 401 (Unauthorized),
+     * указывая на то, что операция удаления продукта из корзины требует предварительной аутентификации пользователя.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого 401,
+     *                        что может указывать на нарушение политики безопасности API по контролю доступа.
+     */
+    @Test(priority = 17)
+
+    public void RemoveProductFromCartWithoutAuthorizationTest() {
+        performRequestAndVerify("DELETE", "/cart/" + productId, null, null, 401);
+    }
+}
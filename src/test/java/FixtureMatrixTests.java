@@ -0,0 +1,114 @@
+import fixtures.FixtureDataProvider;
+import io.restassured.response.Response;
+import model.AddToCartRequest;
+import model.NewProduct;
+import model.Product;
+import model.UpdatedProduct;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import validation.CartModel;
+import validation.ProductStreamValidator;
+import validation.ProductTable;
+
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Параметризованные проверки каталога и корзины на матрицах входных данных из файлов фикстур,
+ * см. {@link FixtureDataProvider}. Класс создает собственный продукт, поэтому обновления и корзина
+ * не затрагивают продукты других классов тестов; созданные продукты удаляются.
+ */
+public class FixtureMatrixTests extends BaseTest {
+
+    private static final double PRICE_TOLERANCE = 0.001;
+
+    /** Ожидаемое содержимое корзины пользователя класса. */
+    private final CartModel expectedCart = new CartModel();
+
+    @BeforeClass
+    public void bootstrap() {
+        bootstrapUser();
+        bootstrapProduct("Fixture Matrix Product");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteProduct() {
+        deleteBootstrappedProduct();
+    }
+
+    /**
+     * Создание продукта для каждой строки фикстуры {@code products} и проверка, что созданный продукт
+     * читается с теми же названием, категорией, ценой и скидкой; созданный продукт сразу удаляется.
+     */
+    @Test(priority = 1, dataProvider = "products", dataProviderClass = FixtureDataProvider.class)
+    public void CreateProductMatrixTest(NewProduct newProduct) throws IOException {
+        Response created = performRequestAndVerify("POST", "/products", newProduct, accessToken, 201);
+        Integer id = created.path("product_id");
+        assertNotNull(id, "Created product id should not be null");
+        try {
+            Product stored = readProduct(id);
+            assertEquals(stored.getName(), newProduct.getName());
+            assertEquals(stored.getCategory(), newProduct.getCategory());
+            assertEquals(stored.getPrice(), newProduct.getPrice(), PRICE_TOLERANCE);
+            assertEquals(stored.getDiscount(), newProduct.getDiscount(), PRICE_TOLERANCE);
+        } finally {
+            performRequestAndVerify("DELETE", "/products/" + id, null, accessToken, 200);
+        }
+    }
+
+    /**
+     * Добавление позиции из фикстуры {@code cartLines} в корзину, сверка корзины с моделью и удаление позиции.
+     * Цена и скидка для модели берутся у продукта позиции: у продукта класса или, если фикстура указывает
+     * продукт каталога, из {@code GET /products/{id}}.
+     */
+    @Test(priority = 2, dataProvider = "cartLines", dataProviderClass = FixtureDataProvider.class)
+    public void CartLineMatrixTest(AddToCartRequest line) throws IOException {
+        if (line.getProductId() <= 0) {
+            line.setProductId(productId);
+        }
+        login();
+        Product lineProduct = productOf(line.getProductId());
+        performRequestAndVerify("POST", "/cart", line, accessToken, 201);
+        expectedCart.add(line.getProductId(), lineProduct.getPrice(), lineProduct.getDiscount(), line.getQuantity());
+
+        Response cart = performRequestAndVerify("GET", "/cart", null, accessToken, 200);
+        String mismatch = expectedCart.verify(ProductTable.readCart(cart.asInputStream()));
+        assertNull(mismatch, "Cart should match the expected model: " + mismatch);
+
+        performRequestAndVerify("DELETE", "/cart/" + line.getProductId(), null, accessToken, 200);
+        expectedCart.remove(line.getProductId());
+    }
+
+    /**
+     * Обновление продукта класса каждой строкой фикстуры {@code updates} и проверка, что обновление видно в каталоге.
+     */
+    @Test(priority = 3, dataProvider = "updates", dataProviderClass = FixtureDataProvider.class)
+    public void UpdateProductMatrixTest(UpdatedProduct update) throws IOException {
+        performRequestAndVerify("PUT", "/products/" + productId, update, accessToken, 200);
+
+        Product updated = readProduct(productId);
+        assertEquals(updated.getName(), update.getName());
+        assertEquals(updated.getCategory(), update.getCategory());
+        assertEquals(updated.getPrice(), update.getPrice(), PRICE_TOLERANCE);
+        assertEquals(updated.getDiscount(), update.getDiscount(), PRICE_TOLERANCE);
+    }
+
+    /**
+     * Продукт позиции корзины: продукт класса или продукт каталога, прочитанный по идентификатору из фикстуры.
+     */
+    private Product productOf(int id) throws IOException {
+        return id == productId ? product : readProduct(id);
+    }
+
+    private Product readProduct(int id) throws IOException {
+        Response response = performRequestAndVerify("GET", "/products/" + id, null, null, 200);
+        ProductStreamValidator.Result result = new ProductStreamValidator(1, 1).validate(response.asInputStream());
+        assertFalse(result.getProducts().isEmpty(), "Product " + id + " should be returned");
+        return result.getProducts().get(0);
+    }
+}
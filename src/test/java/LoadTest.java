@@ -0,0 +1,176 @@
+import auth.TokenCache;
+import io.restassured.response.Response;
+import load.LatencyStats;
+import load.VirtualUserSession;
+import model.AddToCartRequest;
+import model.Product;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import validation.CartModel;
+import validation.ProductStreamValidator;
+import validation.ProductTable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Нагрузочный режим поверх тех же сценариев, что проверяют {@link AuthTests}, {@link ProductTests} и {@link CartTests}.
+ * Запускает N виртуальных пользователей на виртуальных потоках; каждый регистрируется
+ * и затем циклически выполняет сценарий "список продуктов -> добавление в корзину -> корзина -> удаление из корзины".
+ * Токен доступа берется из {@link TokenCache}, поэтому вход выполняется только при истечении срока токена.
+ * Каждый ответ {@code GET /cart} сверяется с {@link CartModel} пользователя; расхождения проваливают прогон.
+ * В конце печатает пропускную способность и перцентили задержек по эндпоинтам и HTTP методам.
+ * <p>
+ * Включается через {@code -Dload.users=N}; длительность задается {@code -Dload.durationSeconds} (по умолчанию 30),
+ * либо число итераций на пользователя — {@code -Dload.iterations}. Без {@code -Dload.users} тест пропускается.
+ */
+public class LoadTest extends BaseTest {
+
+    /** Читает из ответа {@code GET /products} только первый продукт, не разбирая остальной каталог. */
+    private static final ProductStreamValidator PRODUCT_PROBE = new ProductStreamValidator(1, 1);
+    /** Сколько расхождений корзины с моделью печатать подробно. */
+    private static final int REPORTED_CART_MISMATCHES = 10;
+
+    private final LongAdder cartChecks = new LongAdder();
+    private final LongAdder cartMismatches = new LongAdder();
+
+    @Test
+    public void runLoad() {
+        int users = Integer.getInteger("load.users", 0);
+        if (users <= 0) {
+            throw new SkipException("Load mode is disabled, set -Dload.users=N to enable it");
+        }
+        long iterations = Long.getLong("load.iterations", 0);
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.getLong("load.durationSeconds", 30));
+
+        LatencyStats stats = new LatencyStats();
+        TokenCache tokens = new TokenCache(user -> {
+            Response login = timed(stats, "POST", "/login", "/login", user, null, 200);
+            if (login == null) {
+                throw new IllegalStateException("Login failed for " + user.getUsername());
+            }
+            return login.path("access_token");
+        }, Duration.ofSeconds(Long.getLong("auth.refreshMarginSeconds", 30)),
+                Duration.ofSeconds(Long.getLong("auth.defaultTtlSeconds", 300)));
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        long started = System.nanoTime();
+        long deadline = iterations > 0 ? Long.MAX_VALUE : started + durationNanos;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                VirtualUserSession session = new VirtualUserSession("load-" + runId + "-" + i, "password");
+                executor.submit(() -> runVirtualUser(session, stats, tokens, deadline, iterations));
+            }
+        }
+
+        System.out.printf("Load run: %d virtual users, %d logins, %d cached token hits, %d cart checks, %d cart mismatches%n%s",
+                users, tokens.getLoginCount(), tokens.getHitCount(), cartChecks.sum(), cartMismatches.sum(),
+                stats.report(System.nanoTime() - started));
+        assertTrue(stats.totalRequests() > 0, "Load run should send at least one request");
+        assertEquals(cartMismatches.sum(), 0, "Every GET /cart should match the expected cart model");
+    }
+
+    /**
+     * Выполняет сценарий одного виртуального пользователя до истечения срока или исчерпания итераций.
+     * Ошибка на любом шаге учитывается в статистике и прерывает только текущую итерацию.
+     */
+    private void runVirtualUser(VirtualUserSession session, LatencyStats stats, TokenCache tokens,
+                                long deadline, long iterations) {
+        if (timed(stats, "POST", "/register", "/register", session.getUser(), null, 201) == null) {
+            return;
+        }
+
+        while (System.nanoTime() < deadline && (iterations == 0 || session.getIterations() < iterations)) {
+            session.incrementIterations();
+            try {
+                // Повторный логин происходит, только когда срок действия токена подходит к концу
+                session.setAccessToken(tokens.getToken(session.getUser()));
+            } catch (IllegalStateException e) {
+                continue;
+            }
+
+            Response products = timed(stats, "GET", "/products", "/products", null, null, 200);
+            if (products == null) {
+                continue;
+            }
+            ProductStreamValidator.Result firstProduct;
+            try {
+                firstProduct = PRODUCT_PROBE.validate(products.asInputStream());
+            } catch (IOException e) {
+                continue;
+            }
+            if (firstProduct.getProducts().isEmpty()) {
+                continue;
+            }
+            Product product = firstProduct.getProducts().get(0);
+            session.setProductId(product.getId());
+            CartModel cart = session.getCart();
+
+            // Мутация, завершившаяся ошибкой, могла быть применена сервером: модель перестроится по следующему GET /cart
+            AddToCartRequest addToCartRequest = new AddToCartRequest(session.getProductId(), 1);
+            if (timed(stats, "POST", "/cart", "/cart", addToCartRequest, session.getAccessToken(), 201) == null) {
+                cart.markUnknown();
+                continue;
+            }
+            cart.add(product.getId(), product.getPrice(), product.getDiscount(), addToCartRequest.getQuantity());
+
+            Response cartResponse = timed(stats, "GET", "/cart", "/cart", null, session.getAccessToken(), 200);
+            if (cartResponse != null) {
+                verifyCart(session, cartResponse);
+            }
+            if (timed(stats, "DELETE", "/cart/{id}", "/cart/" + session.getProductId(), null, session.getAccessToken(), 200) == null) {
+                cart.markUnknown();
+            } else {
+                cart.remove(session.getProductId());
+            }
+        }
+    }
+
+    /**
+     * Сверяет ответ {@code GET /cart} с моделью корзины пользователя и учитывает расхождение.
+     */
+    private void verifyCart(VirtualUserSession session, Response response) {
+        cartChecks.increment();
+        String mismatch;
+        try {
+            mismatch = session.getCart().verify(ProductTable.readCart(response.asInputStream()));
+        } catch (IOException e) {
+            mismatch = "Cannot read cart: " + e.getMessage();
+        }
+        if (mismatch != null) {
+            cartMismatches.increment();
+            if (cartMismatches.sum() <= REPORTED_CART_MISMATCHES) {
+                System.out.println("Cart mismatch for " + session.getUsername() + ": " + mismatch);
+            }
+            // Следующая проверка начнется с состояния сервера, чтобы одно расхождение не повторялось в каждой итерации
+            session.getCart().markUnknown();
+        }
+    }
+
+    /**
+     * Выполняет запрос через {@link #performRequestAndVerify} и записывает его длительность.
+     *
+     * @param endpoint Шаблон пути для группировки в статистике.
+     * @return Ответ сервера либо {@code null}, если запрос завершился ошибкой.
+     */
+    private Response timed(LatencyStats stats, String method, String endpoint, String path, Object body,
+                           String accessToken, int expectedStatusCode) {
+        long start = System.nanoTime();
+        try {
+            Response response = performRequestAndVerify(method, path, body, accessToken, expectedStatusCode);
+            stats.record(method, endpoint, System.nanoTime() - start, false);
+            return response;
+        } catch (AssertionError | RuntimeException e) {
+            stats.record(method, endpoint, System.nanoTime() - start, true);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import load.ArrivalScheduler;
+import load.RateProfile;
+import model.AddToCartRequest;
+import model.User;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Нагрузка по открытой модели: запросы register/login/products/cart поступают с заданной частотой независимо
+ * от времени ответа сервера, задержки считаются от запланированного времени отправки (см. {@link ArrivalScheduler}).
+ * <p>
+ * Включается через {@code -Dopen.rate=R} (запросов в секунду). Разгон до {@code -Dopen.endRate} за
+ * {@code -Dopen.rampSeconds}, длительность {@code -Dopen.durationSeconds} (по умолчанию 60).
+ * Смесь запросов задается весами {@code -Dopen.mix=register:1,login:1,products:4,addToCart:2,cart:2};
+ * запросы от имени {@code -Dopen.users} заранее зарегистрированных пользователей (по умолчанию 50),
+ * не больше {@code -Dopen.maxInFlight} ожидающих ответа (по умолчанию 10000).
+ */
+public class OpenModelLoadTest extends BaseTest {
+
+    private static final String DEFAULT_MIX = "register:1,login:1,products:4,addToCart:2,cart:2";
+
+    private AtomicReferenceArray<String> tokens;
+    private List<User> users;
+
+    @Test
+    public void runOpenModel() {
+        double rate = Double.parseDouble(System.getProperty("open.rate", "0"));
+        if (rate <= 0) {
+            throw new SkipException("Open-model load is disabled, set -Dopen.rate=R to enable it");
+        }
+        RateProfile profile = new RateProfile(rate,
+                Double.parseDouble(System.getProperty("open.endRate", String.valueOf(rate))),
+                Double.parseDouble(System.getProperty("open.rampSeconds", "0")),
+                Double.parseDouble(System.getProperty("open.durationSeconds", "60")));
+
+        bootstrapUser();
+        bootstrapProduct("Open Model Product");
+        ArrivalScheduler.Result result;
+        try {
+            prepareUsers(Integer.getInteger("open.users", 50));
+
+            List<ArrivalScheduler.Step> mix = parseMix(System.getProperty("open.mix", DEFAULT_MIX));
+            result = new ArrivalScheduler(profile, mix, Integer.getInteger("open.maxInFlight", 10_000)).run();
+        } finally {
+            deleteBootstrappedProduct();
+        }
+
+        System.out.printf("Open-model run: %s, %d users%n%s", profile, users.size(), result.report());
+        assertTrue(result.getFromIntended().totalRequests() > 0, "Open-model run should send at least one request");
+    }
+
+    /**
+     * Регистрирует пользователей, от имени которых отправляются login и запросы к корзине, и получает их токены.
+     */
+    private void prepareUsers(int count) {
+        users = new ArrayList<>(count);
+        tokens = new AtomicReferenceArray<>(count);
+        List<CompletableFuture<?>> logins = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            User user = new User(uniqueUsername(), "password");
+            users.add(user);
+            logins.add(performRequestAndVerifyAsync("POST", "/register", user, null, 201)
+                    .thenCompose(registered -> login(index)));
+        }
+        CompletableFuture.allOf(logins.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private CompletableFuture<?> login(int index) {
+        return performRequestAndVerifyAsync("POST", "/login", users.get(index), null, 200)
+                .thenAccept(response -> tokens.set(index, response.path("access_token")));
+    }
+
+    /**
+     * Разбирает смесь запросов вида {@code products:4,cart:2} в шаги планировщика.
+     *
+     * @throws IllegalArgumentException если в смеси указан неизвестный шаг.
+     */
+    private List<ArrivalScheduler.Step> parseMix(String mix) {
+        Map<String, Integer> weights = Stream.of(mix.split(","))
+                .map(entry -> entry.trim().split(":"))
+                .collect(Collectors.toMap(entry -> entry[0].toLowerCase(Locale.ROOT), entry -> Integer.parseInt(entry[1])));
+        List<ArrivalScheduler.Step> steps = new ArrayList<>();
+        weights.forEach((name, weight) -> steps.add(switch (name) {
+            case "register" -> new ArrivalScheduler.Step("POST", "/register", weight, () ->
+                    performRequestAndVerifyAsync("POST", "/register", new User(uniqueUsername(), "password"), null, 201));
+            case "login" -> new ArrivalScheduler.Step("POST", "/login", weight, () -> login(randomUser()));
+            case "products" -> new ArrivalScheduler.Step("GET", "/products", weight, () ->
+                    performRequestAndVerifyAsync("GET", "/products", (Object) null, null, 200));
+            case "addtocart" -> new ArrivalScheduler.Step("POST", "/cart", weight, () ->
+                    performRequestAndVerifyAsync("POST", "/cart", new AddToCartRequest(productId, 1), tokens.get(randomUser()), 201));
+            case "cart" -> new ArrivalScheduler.Step("GET", "/cart", weight, () ->
+                    performRequestAndVerifyAsync("GET", "/cart", (Object) null, tokens.get(randomUser()), 200));
+            default -> throw new IllegalArgumentException("Unknown step in open.mix: " + name);
+        }));
+        return steps;
+    }
+
+    private int randomUser() {
+        return ThreadLocalRandom.current().nextInt(users.size());
+    }
+}
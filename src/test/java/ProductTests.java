@@ -0,0 +1,211 @@
+import io.restassured.response.Response;
+
+import model.*;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import sla.LatencyBudget;
+import validation.ProductStreamValidator;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.*;
+
+/**
+ * Тесты каталога продуктов: получение списка, создание, чтение, обновление и удаление продукта.
+ * Перед запуском регистрирует собственного пользователя, а чтение, обновление и удаление выполняет над продуктом,
+ * созданным {@code AddNewProductTest}, поэтому не затрагивает продукты других классов тестов.
+ */
+public class ProductTests extends BaseTest {
+
+    @BeforeClass
+    public void bootstrap() {
+        bootstrapUser();
+    }
+
+
+    /**
+     * Тестирует получение списка продуктов.
+     * Метод выполняет GET запрос к эндпоинту "/products", проверяет успешный ответ от сервера (200 OK),
+     * убеждается в наличии непустого списка продуктов в теле ответа, и проверяет корректность структуры данных первого продукта в списке,
+     * включая его идентификатор (id), имя (name), категорию (category), цену (price) и скидку (discount).
+     *
+     * @throws AssertionError если ответ от сервера не соответствует ожидаемому (например, если тело ответа пустое,
+     *                        список продуктов отсутствует или не содержит ни одного продукта, или если структура данных продукта
+     *                        не соответствует ожидаемой), или если идентификатор первого продукта не является положительным числом.
+     */
+
+    @Test(priority = 3)
+    @LatencyBudget(endpoint = "GET /products", millis = 2000)
+    public void GetListOfProductsTest() throws IOException {
+        // Выполняем GET запрос для получения списка продуктов
+        Response response = performRequestAndVerify("GET", "/products", null, null, 200);
+
+        // Убеждаемся, что тело ответа не пустое и содержит список продуктов
+        assertNotNull(response.getBody(), "Response body should not be null");
+
+        // Потоково проверяем все продукты в ответе, сохраняя в памяти только первый
+        ProductStreamValidator.Result result = new ProductStreamValidator(Integer.MAX_VALUE, 1)
+                .validate(response.asInputStream());
+        assertNull(result.getViolation(), "Products list should contain only valid products");
+
+        // Убеждаемся, что список продуктов не пуст
+        assertTrue(result.getCount() > 0, "Products list should not be empty");
+
+        // Проверяем, что у первого продукта в списке положительный ID
+        Product firstProduct = result.getProducts().get(0);
+        assertTrue(firstProduct.getId() > 0, "Product ID should be positive");
+    }
+
+
+    /**
+     * Тест добавления нового продукта через API.
+     * Этот тест формирует JSON объект для тела запроса и отправляет POST-запрос на эндпоинт "/products".
+     * Тест проверяет, что запрос на добавление нового продукта обрабатывается корректно,
+     * и в ответ сервер возвращает статус код 201, что означает успешное создание ресурса.
+     * Идентификатор созданного продукта сохраняется в productId: последующие тесты читают, обновляют и удаляют
+     * именно этот продукт, а не общий продукт каталога.
+     */
+
+
+    @Test(priority = 4)
+    public void AddNewProductTest() {
+
+        newProduct = new NewProduct("New Product", "Electronics", 12.99, 5);
+
+        Response response = performRequestAndVerify("POST", "/products", newProduct, accessToken, 201);
+        Integer id = response.path("product_id");
+        assertNotNull(id, "Created product id should not be null");
+        productId = id;
+    }
+
+
+    /**
+     * Тестирование попытки добавления нового продукта с методом, который не разрешен API.
+     * Тест формирует JSON объект для тела запроса и пытается отправить POST-запрос на эндпоинт "/products",
+     * но без предоставления токена доступа. Это имитирует ситуацию, когда использование метода недопустимо.
+     * * Ожидается, что API вернет статус код 405, указывающий на то, что метод запроса не разрешен.
+     */
+    @Test(priority = 5)
+    public void AddNewProductWithNotAllowedMethodTest() {
+
+        performRequestAndVerify("POST", "/products", newProduct, null, 405);
+    }
+
+
+    /**
+     * Тестирование получения информации о продукте по его ID.
+     * Метод выполняет GET запрос к API для получения данных о конкретном продукте,
+     * используя сохраненный ранее productId. Проверяется, что ответ содержит корректные
+     * данные о продукте, включая его ID, имя, категорию, цену и скидку.
+     * Все эти поля должны соответствовать ожидаемым типам данных.
+     * Ожидается, что сервер вернет статусный код 200 (OK) и корректную информацию о продукте.
+     */
+    @Test(priority = 6)
+    public void GetProductInformationTest() {
+        // Предполагается, что productId уже был инициализирован
+        String path = "/products/" + productId;
+
+        // Использование метода из BaseTest для выполнения запроса и проверки статусного кода
+        Response response = performRequestAndVerify("GET", path, null, null, 200);
+
+        // Десериализация JSON ответа в список объектов Product
+        List<Product> products = deserialize(() -> response.jsonPath().getList("", Product.class));
+
+        // Проверяем, что список продуктов не пустой
+        assertThat(products, is(not(empty())));
+
+        Product product = products.get(0);
+
+        assertThat(product.getId(), is(equalTo(productId)));
+        assertThat(product.getName(), is(not(emptyOrNullString())));
+        assertThat(product.getCategory(), is(not(emptyOrNullString())));
+        assertThat(product.getPrice(), is(greaterThan(0.0)));
+        assertThat(product.getDiscount(), is(greaterThanOrEqualTo(0.0)));
+    }
+
+    /**
+     * Тестирование ответа API на запрос информации о несуществующем продукте.
+     * Этот тест пытается получить информацию о продукте, используя ID, который
+     * гарантированно не существует в базе данных. Проверяется, что API корректно
+     * обрабатывает такой запрос, возвращая статусный код 404 (Not Found), указывая на то,
+     * что запрашиваемый ресурс не был найден.
+     */
+    @Test(priority = 7)
+
+    public void GetNonexistentProductInformationTest() {
+        int nonexistentProductId = 99999; // значение, гарантированно отсутствующее в базе
+        String path = "/products/" + nonexistentProductId;
+        performRequestAndVerify("GET", path, null, null, 404); // Проверяем, что сервер возвращает статус 404 Not Found
+    }
+
+    /**
+     * Тестирование обновления информации о продукте.
+     * Метод отправляет PUT запрос с обновленными данными продукта на эндпоинт "/products/{productId}".
+     * Ожидается, что API успешно обработает запрос и вернет статусный код 200 (OK),
+     * подтверждая успешное обновление информации о продукте. Данные для обновления
+     * включают новое имя, категорию, цену и скидку продукта.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого или
+     *                        если обновление информации о продукте не происходит.
+     */
+
+    @Test(priority = 8)
+    public void UpdateProductInformationTest() {
+
+        updatedProduct = new UpdatedProduct("Updated Product Name", "Electronics", 15.99, 8);
+
+        // Вызов метода из BaseTest для выполнения PUT запроса и проверки ответа
+        performRequestAndVerify("PUT", "/products/" + productId, updatedProduct, accessToken, 200);
+    }
+
+
+    /**
+     * Тестирование попытки обновления информации о продукте с использованием неразрешенного метода.
+     * Метод отправляет PUT запрос для обновления продукта без необходимого токена аутентификации,
+     * что не разрешено API. API должно ответить с кодом статуса 405 (Method Not Allowed),
+     * указывая на то, что хотя метод (PUT) может быть допустим в целом, его использование
+     * не разрешено без аутентификации или для конкретного запрашиваемого ресурса.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого 405
+     */
+    @Test(priority = 9)
+    public void UpdateProductWithNotAllowedMethodTest() {
+
+        // Так как здесь не используется accessToken, метод должен вернуть ошибку 405
+        performRequestAndVerify("PUT", "/products/" + productId, updatedProduct, null, 405);
+    }
+
+    /**
+     * Тестирование удаления продукта через API.
+     * Метод отправляет DELETE запрос на эндпоинт "/products/{productId}" с использованием
+     * аутентификационного токена для удаления продукта, указанного переменной productId.
+     * Ожидается, что API успешно обработает запрос, удалит продукт и вернет
+     * статусный код 200 (OK), подтверждая успешное выполнение операции удаления.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого 200
+     */
+    @Test(priority = 10)
+
+    public void DeleteProductTest() {
+        performRequestAndVerify("DELETE", "/products/" + productId, null, accessToken, 200);
+    }
+
+    /**
+     * Тестирование попытки удаления продукта с использованием неразрешённого метода.
+     * Этот тест выполняет DELETE запрос на эндпоинт "/products/{productId}" без аутентификационного токена,
+     * что предполагается быть недопустимым в данном контексте API. Ожидается, что сервер отклонит запрос,
+     * возвращая статусный код 405 (Method Not Allowed), указывая на то, что выполнение
+     * операции удаления не разрешено без аутентификации или данное действие в целом недопустимо.
+     *
+     * @throws AssertionError если статусный код ответа отличается от ожидаемого 405,
+     *                        что указывало бы на некорректную обработку запроса со стороны API.
+     */
+    @Test(priority = 11)
+
+    public void DeleteProductWithNotAllowedMethodTest() {
+        performRequestAndVerify("DELETE", "/products/" + productId, null, null, 405);
+    }
+}
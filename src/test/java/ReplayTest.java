@@ -0,0 +1,36 @@
+import capture.TrafficReplayer;
+import io.restassured.RestAssured;
+import load.LatencyStats;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Повторная отправка захваченного трафика ({@code -Dapi.capture}) на целевой сервис.
+ * Файл задается {@code -Dreplay.file}, скорость — {@code -Dreplay.rate} (1 — исходный темп, 2 — вдвое быстрее,
+ * 0 — без пауз). Целевой сервис выбирается так же, как для остальных тестов. В конце печатает задержки
+ * по эндпоинтам и число ответов, статус которых отличается от захваченного. Без {@code -Dreplay.file} тест пропускается.
+ */
+public class ReplayTest extends BaseTest {
+
+    @Test
+    public void replayCapturedTraffic() throws IOException {
+        String file = System.getProperty("replay.file");
+        if (file == null) {
+            throw new SkipException("Replay is disabled, set -Dreplay.file=capture.ndjson to enable it");
+        }
+        double rate = Double.parseDouble(System.getProperty("replay.rate", "1"));
+
+        TrafficReplayer replayer = new TrafficReplayer(ASYNC_ENGINE, RestAssured.baseURI, rate);
+        long started = System.nanoTime();
+        LatencyStats stats = replayer.replay(Path.of(file));
+
+        System.out.printf("Replayed %s at rate %s, %d status mismatches%n%s",
+                file, rate, replayer.getStatusMismatches(), stats.report(System.nanoTime() - started));
+        assertTrue(stats.totalRequests() > 0, "Capture file should contain at least one request");
+    }
+}
@@ -0,0 +1,57 @@
+import io.restassured.response.Response;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import seed.DataSeeder;
+import validation.ProductStreamValidator;
+
+import java.io.IOException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Наполнение API большим объемом данных и проверка каталога на этом объеме.
+ * Создает {@code -Dseed.products} продуктов и {@code -Dseed.carts} корзин по {@code -Dseed.linesPerCart} позиций,
+ * держа в полете не больше {@code -Dseed.concurrency} запросов, затем проверяет весь каталог потоковым валидатором
+ * и удаляет созданные данные (если не задано {@code -Dseed.keep=true}). Генератор данных инициализируется {@code -Dseed.seed}.
+ * Без {@code -Dseed.products} тест пропускается.
+ */
+public class SeedTest extends BaseTest {
+
+    @Test
+    public void seedAndVerifyCatalog() throws IOException {
+        int products = Integer.getInteger("seed.products", 0);
+        if (products <= 0) {
+            throw new SkipException("Seeding is disabled, set -Dseed.products=N to enable it");
+        }
+        int carts = Integer.getInteger("seed.carts", 0);
+        int linesPerCart = Integer.getInteger("seed.linesPerCart", 10);
+
+        DataSeeder seeder = new DataSeeder(this::performRequestAndVerifyAsync,
+                Integer.getInteger("seed.concurrency", 64), Long.getLong("seed.seed", 42));
+        try {
+            DataSeeder.Result seededProducts = seeder.seedProducts(products);
+            System.out.println("Seeded " + seededProducts);
+            assertEquals(seededProducts.getFailed(), 0, "All products should be created");
+
+            if (carts > 0) {
+                DataSeeder.Result seededCarts = seeder.seedCarts(carts, linesPerCart);
+                System.out.println("Seeded " + seededCarts);
+                assertEquals(seededCarts.getFailed(), 0, "All carts should be filled");
+            }
+
+            long started = System.nanoTime();
+            Response response = performRequestAndVerify("GET", "/products", null, null, 200);
+            ProductStreamValidator.Result catalog = new ProductStreamValidator(Integer.MAX_VALUE, 0)
+                    .validate(response.asInputStream());
+            System.out.printf("Listed %d products in %.1f ms%n", catalog.getCount(), (System.nanoTime() - started) / 1e6);
+            assertNull(catalog.getViolation(), "Products list should contain only valid products");
+            assertTrue(catalog.getCount() >= seeder.getProductCount(), "Catalog should contain all seeded products");
+        } finally {
+            if (!Boolean.getBoolean("seed.keep")) {
+                System.out.println("Cleaned up " + seeder.cleanup());
+            }
+        }
+    }
+}
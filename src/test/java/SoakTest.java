@@ -0,0 +1,198 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+import load.SoakReporter;
+import load.VirtualUserSession;
+import load.WindowedStats;
+import model.AddToCartRequest;
+import model.NewProduct;
+import model.Product;
+import model.UpdatedProduct;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import validation.CartModel;
+import validation.ProductStreamValidator;
+import validation.ProductTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Длительный (soak) прогон сценариев {@link ProductTests} и {@link CartTests} для поиска утечек памяти
+ * и роста задержек на сервере. {@code -Dsoak.users} пользователей (по умолчанию 4) в цикле создают, читают, обновляют
+ * и удаляют продукт, затем добавляют продукт в корзину, сверяют корзину с {@link CartModel} и удаляют позицию.
+ * <p>
+ * Итоги пишутся по окнам {@code -Dsoak.windowSeconds} (по умолчанию 10) и скользящему окну из
+ * {@code -Dsoak.rollingWindows} последних окон (по умолчанию 6, то есть 1 минута): в консоль и в NDJSON файл
+ * {@code -Dsoak.report} (по умолчанию {@code target/soak-windows.ndjson}). Пауза между итерациями —
+ * {@code -Dsoak.thinkMillis}. Включается через {@code -Dsoak.durationSeconds=N}, без него тест пропускается.
+ */
+public class SoakTest extends BaseTest {
+
+    private static final ProductStreamValidator PRODUCT_PROBE = new ProductStreamValidator(1, 1);
+
+    private final LongAdder cartMismatches = new LongAdder();
+
+    @Test
+    public void runSoak() throws IOException {
+        long durationSeconds = Long.getLong("soak.durationSeconds", 0);
+        if (durationSeconds <= 0) {
+            throw new SkipException("Soak mode is disabled, set -Dsoak.durationSeconds=N to enable it");
+        }
+        int users = Integer.getInteger("soak.users", 4);
+        long thinkMillis = Long.getLong("soak.thinkMillis", 0);
+        Duration window = Duration.ofSeconds(Long.getLong("soak.windowSeconds", 10));
+        Path report = Path.of(System.getProperty("soak.report", "target/soak-windows.ndjson"));
+
+        WindowedStats stats = new WindowedStats();
+        LongAdder requests = new LongAdder();
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        try (SoakReporter reporter = new SoakReporter(stats, window, Integer.getInteger("soak.rollingWindows", 6), report)) {
+            reporter.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < users; i++) {
+                    VirtualUserSession session = new VirtualUserSession("soak-" + runId + "-" + i, "password");
+                    executor.submit(() -> runSession(session, stats, requests, deadline, thinkMillis));
+                }
+            }
+        }
+
+        System.out.printf("Soak run: %d users, %d s, %d requests, %d cart mismatches, windows in %s%n",
+                users, durationSeconds, requests.sum(), cartMismatches.sum(), report.toAbsolutePath());
+        assertTrue(requests.sum() > 0, "Soak run should send at least one request");
+        assertEquals(cartMismatches.sum(), 0, "Every GET /cart should match the expected cart model");
+    }
+
+    private void runSession(VirtualUserSession session, WindowedStats stats, LongAdder requests, long deadline,
+                            long thinkMillis) {
+        if (call(stats, requests, "POST", "/register", session.getUser(), null, 201) == null) {
+            return;
+        }
+        while (System.nanoTime() < deadline) {
+            session.incrementIterations();
+            try {
+                session.setAccessToken(tokenCache.getToken(session.getUser()));
+            } catch (AssertionError | RuntimeException e) {
+                stats.record(WindowedStats.NO_RESPONSE, 0, true);
+                continue;
+            }
+            runProductFlow(session, stats, requests);
+            runCartFlow(session, stats, requests);
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Создание, чтение, обновление и удаление собственного продукта.
+     */
+    private void runProductFlow(VirtualUserSession session, WindowedStats stats, LongAdder requests) {
+        String token = session.getAccessToken();
+        NewProduct newProduct = new NewProduct(session.getUsername() + "-" + session.getIterations(), "Electronics", 12.99, 5);
+        Response created = call(stats, requests, "POST", "/products", newProduct, token, 201);
+        if (created == null) {
+            return;
+        }
+        JsonNode body;
+        try {
+            body = MAPPER.readTree(created.asByteArray());
+        } catch (IOException e) {
+            return;
+        }
+        JsonNode id = body.has("product_id") ? body.get("product_id") : body.path("id");
+        if (!id.canConvertToInt()) {
+            return;
+        }
+        String path = "/products/" + id.asInt();
+        call(stats, requests, "GET", path, null, null, 200);
+        call(stats, requests, "PUT", path, new UpdatedProduct(newProduct.getName(), "Electronics", 15.99, 8), token, 200);
+        call(stats, requests, "DELETE", path, null, token, 200);
+    }
+
+    /**
+     * Добавление продукта из каталога в корзину, сверка корзины с моделью и удаление позиции.
+     */
+    private void runCartFlow(VirtualUserSession session, WindowedStats stats, LongAdder requests) {
+        Response products = call(stats, requests, "GET", "/products", null, null, 200);
+        if (products == null) {
+            return;
+        }
+        Product product;
+        try {
+            ProductStreamValidator.Result first = PRODUCT_PROBE.validate(products.asInputStream());
+            if (first.getProducts().isEmpty()) {
+                return;
+            }
+            product = first.getProducts().get(0);
+        } catch (IOException e) {
+            return;
+        }
+
+        String token = session.getAccessToken();
+        CartModel cart = session.getCart();
+        AddToCartRequest line = new AddToCartRequest(product.getId(), 1);
+        if (call(stats, requests, "POST", "/cart", line, token, 201) == null) {
+            cart.markUnknown();
+            return;
+        }
+        cart.add(product.getId(), product.getPrice(), product.getDiscount(), line.getQuantity());
+
+        Response cartResponse = call(stats, requests, "GET", "/cart", null, token, 200);
+        if (cartResponse != null) {
+            String mismatch;
+            try {
+                mismatch = cart.verify(ProductTable.readCart(cartResponse.asInputStream()));
+            } catch (IOException e) {
+                mismatch = "Cannot read cart: " + e.getMessage();
+            }
+            if (mismatch != null) {
+                cartMismatches.increment();
+                System.out.println("Cart mismatch for " + session.getUsername() + ": " + mismatch);
+                cart.markUnknown();
+            }
+        }
+
+        if (call(stats, requests, "DELETE", "/cart/" + product.getId(), null, token, 200) == null) {
+            cart.markUnknown();
+        } else {
+            cart.remove(product.getId());
+        }
+    }
+
+    /**
+     * Выполняет запрос и учитывает его статус и длительность в текущем окне. Ответ, не прошедший проверку
+     * контракта ({@code -Dapi.schemas=true}), учитывается как ошибка без ответа, а сессия продолжается.
+     *
+     * @return Ответ сервера или {@code null}, если статус отличается от ожидаемого, ответа нет
+     * или он нарушает контракт.
+     */
+    private Response call(WindowedStats stats, LongAdder requests, String method, String path, Object body,
+                          String accessToken, int expectedStatusCode) {
+        requests.increment();
+        long start = System.nanoTime();
+        try {
+            Response response = performRequest(method, path, body, accessToken);
+            int status = response.getStatusCode();
+            stats.record(status, System.nanoTime() - start, status != expectedStatusCode);
+            return status == expectedStatusCode ? response : null;
+        } catch (AssertionError | RuntimeException e) {
+            stats.record(WindowedStats.NO_RESPONSE, System.nanoTime() - start, true);
+            return null;
+        }
+    }
+}
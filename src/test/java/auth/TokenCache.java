@@ -0,0 +1,158 @@
+package auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import model.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Кэш токенов доступа, ключом которого является имя пользователя.
+ * Срок действия токена берется из claim'а {@code exp}, если токен имеет формат JWT, иначе используется TTL по умолчанию.
+ * Токен обновляется заранее, за {@code refreshMargin} до истечения срока. Одновременные запросы токена
+ * для одного пользователя разделяют один логин в процессе выполнения, поэтому лишних запросов {@code /login} не бывает.
+ */
+public class TokenCache {
+
+    private static final ObjectReader CLAIMS_READER = new ObjectMapper().reader();
+
+    private final Function<User, String> login;
+    private final Duration refreshMargin;
+    private final Duration defaultTtl;
+
+    private final Map<String, CompletableFuture<Token>> tokens = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder logins = new LongAdder();
+
+    /**
+     * @param login Функция, выполняющая вход пользователя и возвращающая токен доступа.
+     * @param refreshMargin За сколько до истечения срока токен считается устаревшим и обновляется.
+     * @param defaultTtl Срок действия токена без claim'а {@code exp}.
+     */
+    public TokenCache(Function<User, String> login, Duration refreshMargin, Duration defaultTtl) {
+        this.login = login;
+        this.refreshMargin = refreshMargin;
+        this.defaultTtl = defaultTtl;
+    }
+
+    /**
+     * Возвращает действующий токен пользователя, выполняя вход только при отсутствии токена или приближении срока его истечения.
+     *
+     * @param user Пользователь, для которого нужен токен.
+     * @return Токен доступа.
+     */
+    public String getToken(User user) {
+        String username = user.getUsername();
+        while (true) {
+            CompletableFuture<Token> current = tokens.get(username);
+            if (current != null && (!current.isDone() || isUsable(current))) {
+                Token token = await(current);
+                if (token != null) {
+                    hits.increment();
+                    return token.value;
+                }
+                // Логин, которого мы ждали, завершился ошибкой — пробуем заново
+                continue;
+            }
+
+            CompletableFuture<Token> refresh = new CompletableFuture<>();
+            boolean owner = current == null
+                    ? tokens.putIfAbsent(username, refresh) == null
+                    : tokens.replace(username, current, refresh);
+            if (!owner) {
+                continue;
+            }
+            try {
+                logins.increment();
+                String value = login.apply(user);
+                Token token = new Token(value, expiresAt(value));
+                refresh.complete(token);
+                return token.value;
+            } catch (RuntimeException | Error e) {
+                tokens.remove(username, refresh);
+                refresh.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Удаляет отклоненный сервером токен пользователя из кэша, например после ответа 401,
+     * чтобы следующий {@link #getToken(User)} выполнил вход заново.
+     * Токен, уже обновленный другим потоком, не удаляется.
+     *
+     * @param rejectedToken Токен, с которым запрос получил отказ.
+     * @return {@code true}, если в кэше был именно этот токен и он удален.
+     */
+    public boolean invalidate(String username, String rejectedToken) {
+        CompletableFuture<Token> current = tokens.get(username);
+        if (current == null || !current.isDone() || current.isCompletedExceptionally()
+                || !current.join().value.equals(rejectedToken)) {
+            return false;
+        }
+        return tokens.remove(username, current);
+    }
+
+    /** Число запросов, обслуженных из кэша, включая ожидание чужого логина. */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** Число фактически выполненных логинов. */
+    public long getLoginCount() {
+        return logins.sum();
+    }
+
+    private boolean isUsable(CompletableFuture<Token> future) {
+        if (future.isCompletedExceptionally()) {
+            return false;
+        }
+        return Instant.now().isBefore(future.join().expiresAt.minus(refreshMargin));
+    }
+
+    private static Token await(CompletableFuture<Token> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Определяет срок действия токена по claim'у {@code exp}; для токенов не в формате JWT — по TTL по умолчанию.
+     */
+    private Instant expiresAt(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length == 3) {
+            try {
+                JsonNode claims = CLAIMS_READER.readTree(Base64.getUrlDecoder().decode(parts[1]));
+                if (claims.path("exp").canConvertToLong()) {
+                    return Instant.ofEpochSecond(claims.path("exp").asLong());
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // Не JWT — используем TTL по умолчанию
+            }
+        }
+        return Instant.now().plus(defaultTtl);
+    }
+
+    private static final class Token {
+        final String value;
+        final Instant expiresAt;
+
+        Token(String value, Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package auth;
+
+import model.User;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты кэша токенов: один логин на одновременные запросы, обновление истекшего или неразборчивого токена
+ * и удаление из кэша только того токена, который отклонил сервер.
+ */
+public class TokenCacheTests {
+
+    private static final User USER = new User("token-cache-user", "password");
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    @Test
+    public void ConcurrentGetTokenRunsOneLoginTest() throws Exception {
+        CountDownLatch loginStarted = new CountDownLatch(1);
+        CountDownLatch releaseLogin = new CountDownLatch(1);
+        AtomicInteger logins = new AtomicInteger();
+        TokenCache cache = new TokenCache(user -> {
+            loginStarted.countDown();
+            try {
+                assertTrue(releaseLogin.await(10, TimeUnit.SECONDS), "Login should be released");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "token-" + logins.incrementAndGet();
+        }, Duration.ZERO, HOUR);
+
+        int callers = 16;
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<CompletableFuture<Void>> calls = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                calls.add(CompletableFuture.runAsync(() -> tokens.add(cache.getToken(USER)), executor));
+            }
+            assertTrue(loginStarted.await(10, TimeUnit.SECONDS), "One caller should start the login");
+            // Остальные вызовы либо ждут начатый логин, либо приходят после него и получают готовый токен
+            releaseLogin.countDown();
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(logins.get(), 1);
+        assertEquals(cache.getLoginCount(), 1);
+        assertEquals(cache.getHitCount(), callers - 1);
+        assertEquals(tokens, Set.of("token-1"));
+    }
+
+    @Test
+    public void FailedLoginIsNotCachedTest() {
+        AtomicInteger attempts = new AtomicInteger();
+        TokenCache cache = new TokenCache(user -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Login failed");
+            }
+            return "token";
+        }, Duration.ZERO, HOUR);
+
+        assertThrows(IllegalStateException.class, () -> cache.getToken(USER));
+        assertEquals(cache.getToken(USER), "token");
+        assertEquals(cache.getLoginCount(), 2);
+    }
+
+    @Test
+    public void JwtExpiryOverridesDefaultTtlTest() {
+        long now = Instant.now().getEpochSecond();
+
+        // Срок из exp уже истек, хотя TTL по умолчанию — час: токен обновляется на каждый запрос
+        TokenCache expired = new TokenCache(sequence(jwt(now - 60), jwt(now - 30)), Duration.ZERO, HOUR);
+        assertEquals(expired.getToken(USER), jwt(now - 60));
+        assertEquals(expired.getToken(USER), jwt(now - 30));
+        assertEquals(expired.getLoginCount(), 2);
+
+        // Срок из exp еще не истек, хотя TTL по умолчанию нулевой: токен берется из кэша
+        TokenCache valid = new TokenCache(sequence(jwt(now + 3600)), Duration.ZERO, Duration.ZERO);
+        assertEquals(valid.getToken(USER), valid.getToken(USER));
+        assertEquals(valid.getLoginCount(), 1);
+    }
+
+    @Test
+    public void TokenWithinRefreshMarginIsRefreshedTest() {
+        long now = Instant.now().getEpochSecond();
+        TokenCache cache = new TokenCache(sequence(jwt(now + 30), jwt(now + 3600)), Duration.ofMinutes(1), HOUR);
+
+        assertEquals(cache.getToken(USER), jwt(now + 30));
+        assertEquals(cache.getToken(USER), jwt(now + 3600));
+        assertEquals(cache.getToken(USER), jwt(now + 3600));
+        assertEquals(cache.getLoginCount(), 2);
+    }
+
+    @Test
+    public void UnparsableTokenUsesDefaultTtlTest() {
+        // Вторая часть не base64url, не JSON или без exp, либо токен вовсе не JWT
+        String[] unparsable = {"a.%%%.c", "a." + base64("not json") + ".c", "a." + base64("{\"sub\":1}") + ".c",
+                "opaque-token"};
+        for (String token : unparsable) {
+            TokenCache expiring = new TokenCache(user -> token, Duration.ZERO, Duration.ZERO);
+            expiring.getToken(USER);
+            expiring.getToken(USER);
+            assertEquals(expiring.getLoginCount(), 2, "Token " + token + " with zero default TTL should be refreshed");
+
+            TokenCache lasting = new TokenCache(user -> token, Duration.ZERO, HOUR);
+            assertEquals(lasting.getToken(USER), token);
+            assertEquals(lasting.getToken(USER), token);
+            assertEquals(lasting.getLoginCount(), 1, "Token " + token + " should live for the default TTL");
+        }
+    }
+
+    @Test
+    public void InvalidateWithStaleTokenKeepsNewerTokenTest() {
+        TokenCache cache = new TokenCache(sequence("token-1", "token-2", "token-3"), Duration.ZERO, HOUR);
+
+        assertEquals(cache.getToken(USER), "token-1");
+        assertTrue(cache.invalidate(USER.getUsername(), "token-1"));
+        assertEquals(cache.getToken(USER), "token-2");
+
+        // Второй поток получил 401 на старый токен уже после обновления
+        assertFalse(cache.invalidate(USER.getUsername(), "token-1"));
+        assertEquals(cache.getToken(USER), "token-2");
+        assertEquals(cache.getLoginCount(), 2);
+    }
+
+    @Test
+    public void InvalidateUnknownUserIsIgnoredTest() {
+        TokenCache cache = new TokenCache(sequence("token-1"), Duration.ZERO, HOUR);
+        assertFalse(cache.invalidate("nobody", "token-1"));
+    }
+
+    /**
+     * Логин, возвращающий токены по очереди.
+     */
+    private static Function<User, String> sequence(String... tokens) {
+        AtomicInteger next = new AtomicInteger();
+        return user -> tokens[next.getAndIncrement()];
+    }
+
+    private static String jwt(long expiresAtEpochSecond) {
+        return base64("{\"alg\":\"none\"}") + "." + base64("{\"exp\":" + expiresAtEpochSecond + "}") + ".signature";
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
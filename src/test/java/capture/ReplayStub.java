@@ -0,0 +1,128 @@
+package capture;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import stub.EmbeddedServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Локальный сервер, отдающий ответы из файла захваченного трафика.
+ * Записи различаются по методу, пути, наличию заголовка {@code Authorization} и значениям {@code If-None-Match}
+ * и {@code If-Modified-Since}: запрос без токена не получит ответ, записанный для авторизованного, а условный
+ * запрос — ответ на обычный, даже при параллельном воспроизведении. Ответы на одинаковые запросы выдаются
+ * в порядке записи; когда записи заканчиваются, повторяется последняя. Запросы, которых нет в записи, получают 404.
+ * <p>
+ * Ответ отдается с записанными заголовками, в том числе {@code ETag} и {@code Last-Modified}, поэтому клиент
+ * с {@code -Dhttp.cache=true} перепроверяет ответы условными запросами так же, как при захвате.
+ */
+public class ReplayStub implements EmbeddedServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, List<TrafficRecord>> responses = new HashMap<>();
+    private final Map<String, AtomicInteger> cursors = new HashMap<>();
+
+    /**
+     * Загружает захваченный трафик и открывает сервер на свободном порту loopback-интерфейса.
+     */
+    public ReplayStub(Path capture) throws IOException {
+        try (MappingIterator<TrafficRecord> records = TrafficRecorder.read(capture)) {
+            while (records.hasNext()) {
+                TrafficRecord record = records.next();
+                Map<String, String> headers = record.getRequestHeaders() == null ? Map.of() : record.getRequestHeaders();
+                String key = keyOf(record.getMethod(), record.getPath(), headers.containsKey("Authorization"),
+                        headers.get("If-None-Match"), headers.get("If-Modified-Since"));
+                responses.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+                cursors.putIfAbsent(key, new AtomicInteger());
+            }
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    @Override
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String baseUri() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            Headers headers = exchange.getRequestHeaders();
+            String key = keyOf(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                    headers.containsKey("Authorization"), headers.getFirst("If-None-Match"),
+                    headers.getFirst("If-Modified-Since"));
+            List<TrafficRecord> recorded = responses.get(key);
+            if (recorded == null) {
+                send(exchange, 404, Map.of(), "{\"message\":\"No captured response for " + key.replace("\"", "\\\"") + "\"}");
+                return;
+            }
+            int index = Math.min(cursors.get(key).getAndIncrement(), recorded.size() - 1);
+            TrafficRecord record = recorded.get(index);
+            send(exchange, record.getStatus(), record.getResponseHeaders() == null ? Map.of() : record.getResponseHeaders(),
+                    record.getResponseBody() == null ? "" : record.getResponseBody());
+        }
+    }
+
+    /**
+     * Ключ записи: метод, путь, признак авторизации и условные заголовки, если они есть.
+     */
+    private static String keyOf(String method, String path, boolean authorized, String ifNoneMatch,
+                                String ifModifiedSince) {
+        StringBuilder key = new StringBuilder(method).append(' ').append(path);
+        if (authorized) {
+            key.append(" [authorized]");
+        }
+        if (ifNoneMatch != null) {
+            key.append(" [If-None-Match: ").append(ifNoneMatch).append(']');
+        }
+        if (ifModifiedSince != null) {
+            key.append(" [If-Modified-Since: ").append(ifModifiedSince).append(']');
+        }
+        return key.toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, String> headers, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        Headers responseHeaders = exchange.getResponseHeaders();
+        responseHeaders.set("Content-Type", "application/json");
+        headers.forEach((name, value) -> {
+            if (TrafficRecord.isReplayed(name)) {
+                responseHeaders.set(name, value);
+            }
+        });
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package capture;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Одна пара запрос/ответ, записанная в режиме захвата трафика.
+ * Сериализуется в одну строку NDJSON файла.
+ */
+public class TrafficRecord {
+
+    /** Заголовки соединения и длины тела: при воспроизведении их выставляет HTTP стек, а не запись. */
+    private static final Set<String> TRANSPORT_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        TRANSPORT_HEADERS.addAll(Set.of("Connection", "Keep-Alive", "Proxy-Authenticate", "Proxy-Authorization", "TE",
+                "Trailer", "Transfer-Encoding", "Upgrade", "Content-Length", "Host", "Expect", "Date"));
+    }
+
+    private long timestampMicros;
+    private String method;
+    private String path;
+    private Map<String, String> requestHeaders;
+    private String requestBody;
+    private int status;
+    private Map<String, String> responseHeaders;
+    private String responseBody;
+    private long latencyMicros;
+
+    // Конструктор по умолчанию
+    public TrafficRecord() {}
+
+    // Конструктор с параметрами
+    public TrafficRecord(long timestampMicros, String method, String path, Map<String, String> requestHeaders,
+                         String requestBody, int status, Map<String, String> responseHeaders, String responseBody,
+                         long latencyMicros) {
+        this.timestampMicros = timestampMicros;
+        this.method = method;
+        this.path = path;
+        this.requestHeaders = requestHeaders;
+        this.requestBody = requestBody;
+        this.status = status;
+        this.responseHeaders = responseHeaders;
+        this.responseBody = responseBody;
+        this.latencyMicros = latencyMicros;
+    }
+
+    // Геттеры и сеттеры
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    public void setTimestampMicros(long timestampMicros) {
+        this.timestampMicros = timestampMicros;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Map<String, String> getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    public void setRequestHeaders(Map<String, String> requestHeaders) {
+        this.requestHeaders = requestHeaders;
+    }
+
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    public void setRequestBody(String requestBody) {
+        this.requestBody = requestBody;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    public void setResponseHeaders(Map<String, String> responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * @return {@code true} для заголовков, которые переносятся из записи в воспроизводимый запрос или ответ.
+     */
+    static boolean isReplayed(String header) {
+        return !TRANSPORT_HEADERS.contains(header);
+    }
+
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    public void setLatencyMicros(long latencyMicros) {
+        this.latencyMicros = latencyMicros;
+    }
+}
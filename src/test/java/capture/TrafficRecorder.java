@@ -0,0 +1,88 @@
+package capture;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Дописывает захваченные пары запрос/ответ в NDJSON файл, по одной записи на строку.
+ * Записи копятся в буфере и сбрасываются в {@link FileChannel} крупными блоками, а не по одной.
+ */
+public class TrafficRecorder implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writerFor(TrafficRecord.class);
+    private static final ObjectReader READER = MAPPER.readerFor(TrafficRecord.class);
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Открывает файл на дозапись, создавая его при отсутствии.
+     */
+    public TrafficRecorder(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Лениво читает записи из NDJSON файла, не загружая его целиком в память.
+     */
+    public static MappingIterator<TrafficRecord> read(Path file) throws IOException {
+        return READER.readValues(file.toFile());
+    }
+
+    /**
+     * Добавляет запись в файл.
+     *
+     * @throws UncheckedIOException если запись не удалось сериализовать или записать.
+     */
+    public void record(TrafficRecord record) {
+        try {
+            byte[] line = WRITER.writeValueAsBytes(record);
+            synchronized (this) {
+                if (buffer.remaining() < line.length + 1) {
+                    flush();
+                }
+                if (line.length + 1 > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(line));
+                    writeFully(ByteBuffer.wrap(new byte[]{'\n'}));
+                } else {
+                    buffer.put(line).put((byte) '\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Сбрасывает накопленные записи в файл.
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package capture;
+
+import client.AsyncHttpEngine;
+import client.ResponseCache;
+import io.restassured.response.Response;
+import load.LatencyStats;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import stub.EmbeddedServer;
+import stub.ShopApiStub;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты захвата и воспроизведения условных запросов: перепроверка кэшированного ответа, получившая при захвате 304,
+ * должна получать 304 и из {@link ReplayStub}, и при повторной отправке {@link TrafficReplayer}.
+ */
+public class TrafficReplayTests {
+
+    private static final String PRODUCT = "/products/1";
+
+    private final AsyncHttpEngine engine = AsyncHttpEngine.fromSystemProperties();
+    private final List<EmbeddedServer> servers = new ArrayList<>();
+    private Path capture;
+
+    @BeforeMethod
+    public void captureRevalidatedRead() throws IOException {
+        capture = Files.createTempFile("capture", ".ndjson");
+        EmbeddedServer live = started(new ShopApiStub());
+        try (TrafficRecorder recorder = new TrafficRecorder(capture)) {
+            List<Response> responses = readTwice(live, recorder);
+            assertEquals(responses.get(1).getStatusCode(), 304, "Second read should be revalidated during capture");
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void cleanup() throws IOException {
+        servers.forEach(EmbeddedServer::stop);
+        servers.clear();
+        Files.deleteIfExists(capture);
+    }
+
+    @Test
+    public void ReplayStubReturnsValidatorsAndNotModifiedTest() throws IOException {
+        EmbeddedServer replay = started(new ReplayStub(capture));
+
+        List<Response> responses = readTwice(replay, null);
+
+        assertEquals(responses.get(0).getStatusCode(), 200);
+        assertNotNull(responses.get(0).getHeader("ETag"), "Replayed response should carry the captured ETag");
+        assertEquals(responses.get(1).getStatusCode(), 304);
+    }
+
+    @Test
+    public void ReplayerForwardsConditionalHeadersTest() throws IOException {
+        for (EmbeddedServer target : List.of(started(new ReplayStub(capture)), started(new ShopApiStub()))) {
+            TrafficReplayer replayer = new TrafficReplayer(engine, target.baseUri(), 0);
+
+            LatencyStats stats = replayer.replay(capture);
+
+            assertEquals(stats.totalRequests(), 2);
+            assertEquals(replayer.getStatusMismatches(), 0, "Replayed revalidation should get 304 from " + target);
+        }
+    }
+
+    /**
+     * Читает продукт дважды через кэш с нулевым сроком свежести: второе чтение перепроверяется условным запросом.
+     * Если задан {@code recorder}, пары запрос/ответ записываются так же, как при {@code -Dapi.capture}.
+     *
+     * @return Ответы сервера на оба запроса, до подстановки из кэша.
+     */
+    private List<Response> readTwice(EmbeddedServer server, TrafficRecorder recorder) {
+        ResponseCache cache = new ResponseCache(10, Duration.ZERO);
+        List<Response> responses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ResponseCache.Entry stale = cache.lookup(PRODUCT);
+            Map<String, String> headers = new LinkedHashMap<>();
+            if (stale != null) {
+                stale.validators().forEach(header -> headers.put(header.getName(), header.getValue()));
+            }
+            Response response = engine.send("GET", URI.create(server.baseUri() + PRODUCT), null, null, headers).join();
+            if (recorder != null) {
+                Map<String, String> responseHeaders = new LinkedHashMap<>();
+                response.getHeaders().forEach(header -> responseHeaders.putIfAbsent(header.getName(), header.getValue()));
+                recorder.record(new TrafficRecord(i, "GET", PRODUCT, headers, null, response.getStatusCode(),
+                        responseHeaders, response.asString(), 0));
+            }
+            responses.add(response);
+            cache.onResponse(PRODUCT, stale, response);
+        }
+        return responses;
+    }
+
+    private EmbeddedServer started(EmbeddedServer server) {
+        server.start();
+        servers.add(server);
+        return server;
+    }
+}
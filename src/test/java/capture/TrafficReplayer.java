@@ -0,0 +1,160 @@
+package capture;
+
+import client.AsyncHttpEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.response.Response;
+import load.LatencyStats;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Повторно отправляет захваченные запросы на целевой сервис с исходными интервалами, умноженными на {@code 1 / rate}.
+ * {@code rate = 2} воспроизводит трафик вдвое быстрее, {@code rate = 0} — без пауз, как можно быстрее.
+ * <p>
+ * Токены из записи заменяются на живые: ответ на повторный {@code POST /login} сопоставляется с токеном
+ * из захваченного ответа, и запросы с этим токеном ждут завершения соответствующего логина.
+ * Остальные записанные заголовки запроса, в том числе условные {@code If-None-Match} и {@code If-Modified-Since},
+ * отправляются как есть, поэтому перепроверка, получившая при захвате 304, воспроизводится условным запросом.
+ */
+public class TrafficReplayer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BEARER = "Bearer ";
+
+    private final AsyncHttpEngine engine;
+    private final String baseUri;
+    private final double rate;
+
+    private final Map<String, CompletableFuture<String>> liveTokens = new ConcurrentHashMap<>();
+    private final LongAdder statusMismatches = new LongAdder();
+
+    public TrafficReplayer(AsyncHttpEngine engine, String baseUri, double rate) {
+        this.engine = engine;
+        this.baseUri = baseUri;
+        this.rate = rate;
+    }
+
+    /**
+     * Воспроизводит файл захвата и ждет завершения всех запросов.
+     *
+     * @return Задержки по эндпоинтам; ошибкой считается статус, отличный от захваченного.
+     */
+    public LatencyStats replay(Path capture) throws IOException {
+        LatencyStats stats = new LatencyStats();
+        Semaphore completed = new Semaphore(0);
+        int sent = 0;
+        long startedNanos = System.nanoTime();
+        long firstTimestampMicros = -1;
+
+        try (MappingIterator<TrafficRecord> records = TrafficRecorder.read(capture)) {
+            while (records.hasNext()) {
+                TrafficRecord record = records.next();
+                if (firstTimestampMicros < 0) {
+                    firstTimestampMicros = record.getTimestampMicros();
+                }
+                if (rate > 0) {
+                    long dueNanos = startedNanos
+                            + (long) (TimeUnit.MICROSECONDS.toNanos(record.getTimestampMicros() - firstTimestampMicros) / rate);
+                    long waitNanos;
+                    while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+                }
+                sent++;
+                send(record, stats).whenComplete((ignored, error) -> completed.release());
+            }
+        }
+        completed.acquireUninterruptibly(sent);
+        return stats;
+    }
+
+    /** Число запросов, статус ответа которых отличается от захваченного. */
+    public long getStatusMismatches() {
+        return statusMismatches.sum();
+    }
+
+    private CompletableFuture<Response> send(TrafficRecord record, LatencyStats stats) {
+        String capturedToken = capturedToken(record);
+        CompletableFuture<String> token = capturedToken == null
+                ? CompletableFuture.completedFuture(null)
+                : liveTokens.getOrDefault(capturedToken, CompletableFuture.completedFuture(capturedToken));
+        byte[] body = record.getRequestBody() == null ? null : record.getRequestBody().getBytes(StandardCharsets.UTF_8);
+        Map<String, String> headers = replayedHeaders(record);
+        String endpoint = LatencyStats.endpointOf(record.getPath());
+
+        CompletableFuture<String> login = isLogin(record) ? registerLogin(record) : null;
+        CompletableFuture<Response> response = token.thenCompose(liveToken -> {
+            long start = System.nanoTime();
+            return engine.send(record.getMethod(), URI.create(baseUri + record.getPath()), body, liveToken, headers)
+                    .whenComplete((live, error) -> {
+                        boolean mismatch = error != null || live.getStatusCode() != record.getStatus();
+                        if (mismatch) {
+                            statusMismatches.increment();
+                        }
+                        stats.record(record.getMethod(), endpoint, System.nanoTime() - start, mismatch);
+                    });
+        });
+        if (login != null) {
+            response.whenComplete((live, error) -> login.complete(error == null ? accessToken(live.asString()) : null));
+        }
+        return response;
+    }
+
+    private CompletableFuture<String> registerLogin(TrafficRecord record) {
+        String captured = accessToken(record.getResponseBody());
+        CompletableFuture<String> live = new CompletableFuture<>();
+        if (captured != null) {
+            liveTokens.put(captured, live.thenApply(token -> token == null ? captured : token));
+        }
+        return live;
+    }
+
+    /**
+     * Записанные заголовки запроса без {@code Authorization}: токен подставляется живой.
+     */
+    private static Map<String, String> replayedHeaders(TrafficRecord record) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (record.getRequestHeaders() != null) {
+            record.getRequestHeaders().forEach((name, value) -> {
+                if (!"Authorization".equalsIgnoreCase(name) && TrafficRecord.isReplayed(name)) {
+                    headers.put(name, value);
+                }
+            });
+        }
+        return headers;
+    }
+
+    private static boolean isLogin(TrafficRecord record) {
+        return "POST".equals(record.getMethod()) && "/login".equals(record.getPath());
+    }
+
+    private static String capturedToken(TrafficRecord record) {
+        String authorization = record.getRequestHeaders() == null ? null : record.getRequestHeaders().get("Authorization");
+        return authorization != null && authorization.startsWith(BEARER) ? authorization.substring(BEARER.length()) : null;
+    }
+
+    private static String accessToken(String body) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        try {
+            JsonNode token = MAPPER.readTree(body).path("access_token");
+            return token.isTextual() ? token.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package client;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующий HTTP движок на {@link HttpClient} из JDK.
+ * Запросы не занимают поток на время ожидания ответа, поэтому одна JVM может держать в полете тысячи запросов.
+ * Ответ приводится к {@link Response} RestAssured, чтобы проверки в тестах не зависели от способа отправки.
+ * <p>
+ * Таймауты берутся из тех же свойств, что и у {@link PooledHttpClient}: {@code http.connectTimeoutMillis}
+ * и {@code http.socketTimeoutMillis}.
+ */
+public class AsyncHttpEngine {
+
+    private static final HttpRequest.BodyPublisher NO_BODY = HttpRequest.BodyPublishers.noBody();
+    private static final HttpResponse.BodyHandler<byte[]> BYTES = HttpResponse.BodyHandlers.ofByteArray();
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    private AsyncHttpEngine(Duration connectTimeout, Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Создает движок с таймаутами из системных свойств.
+     */
+    public static AsyncHttpEngine fromSystemProperties() {
+        return new AsyncHttpEngine(
+                Duration.ofMillis(Integer.getInteger("http.connectTimeoutMillis", 5000)),
+                Duration.ofMillis(Integer.getInteger("http.socketTimeoutMillis", 30000)));
+    }
+
+    /**
+     * Отправляет запрос асинхронно.
+     *
+     * @param method HTTP метод запроса.
+     * @param uri Полный адрес запроса.
+     * @param body Тело запроса в формате JSON или {@code null}.
+     * @param accessToken Токен аутентификации или {@code null}.
+     * @return Future с ответом сервера; завершается исключением только при сетевой ошибке.
+     */
+    public CompletableFuture<Response> send(String method, URI uri, byte[] body, String accessToken) {
+        return send(method, uri, body, accessToken, Map.of(), null);
+    }
+
+    /**
+     * Вариант {@link #send(String, URI, byte[], String)}, сообщающий о получении заголовков ответа.
+     *
+     * @param onHeaders Вызывается в момент получения статуса и заголовков, до чтения тела; может быть {@code null}.
+     */
+    public CompletableFuture<Response> send(String method, URI uri, byte[] body, String accessToken, Runnable onHeaders) {
+        return send(method, uri, body, accessToken, Map.of(), onHeaders);
+    }
+
+    /**
+     * Вариант {@link #send(String, URI, byte[], String)} с дополнительными заголовками запроса,
+     * например условными {@code If-None-Match} и {@code If-Modified-Since}.
+     *
+     * @param headers Заголовки, заменяющие одноименные заголовки по умолчанию.
+     */
+    public CompletableFuture<Response> send(String method, URI uri, byte[] body, String accessToken,
+                                            Map<String, String> headers) {
+        return send(method, uri, body, accessToken, headers, null);
+    }
+
+    private CompletableFuture<Response> send(String method, URI uri, byte[] body, String accessToken,
+                                             Map<String, String> headers, Runnable onHeaders) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? NO_BODY : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (accessToken != null) {
+            request.header("Authorization", "Bearer " + accessToken);
+        }
+        headers.forEach(request::setHeader);
+        HttpResponse.BodyHandler<byte[]> bodyHandler = onHeaders == null ? BYTES : responseInfo -> {
+            onHeaders.run();
+            return BYTES.apply(responseInfo);
+        };
+        return httpClient.sendAsync(request.build(), bodyHandler).thenApply(AsyncHttpEngine::toResponse);
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> httpResponse) {
+        List<Header> headers = new ArrayList<>();
+        httpResponse.headers().map().forEach((name, values) -> values.forEach(value -> headers.add(new Header(name, value))));
+        return new ResponseBuilder()
+                .setStatusCode(httpResponse.statusCode())
+                .setStatusLine("HTTP/1.1 " + httpResponse.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(httpResponse.headers().firstValue("Content-Type").orElse("application/json"))
+                .setBody(httpResponse.body())
+                .build();
+    }
+}
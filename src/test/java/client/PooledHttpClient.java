@@ -0,0 +1,94 @@
+package client;
+
+import io.restassured.config.HttpClientConfig;
+import metrics.Phase;
+import metrics.PhaseClock;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий HTTP клиент RestAssured с пулом соединений и keep-alive.
+ * Без него RestAssured создает новый клиент, а значит и новое TCP соединение, на каждый запрос.
+ * <p>
+ * Параметры задаются системными свойствами:
+ * <ul>
+ *     <li>{@code http.maxPerRoute} — максимум соединений на один хост (по умолчанию 50);</li>
+ *     <li>{@code http.maxTotal} — максимум соединений в пуле (по умолчанию 200);</li>
+ *     <li>{@code http.keepAliveSeconds} — сколько держать соединение, если сервер не прислал Keep-Alive (по умолчанию 30);</li>
+ *     <li>{@code http.idleEvictSeconds} — через сколько закрывать простаивающие соединения (по умолчанию 30);</li>
+ *     <li>{@code http.connectTimeoutMillis} и {@code http.socketTimeoutMillis} — таймауты соединения и чтения (5000 и 30000).</li>
+ * </ul>
+ */
+@SuppressWarnings("deprecation") // RestAssured 5 работает только с AbstractHttpClient и старым API менеджера соединений
+public class PooledHttpClient {
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final HttpClientConfig httpClientConfig;
+
+    private PooledHttpClient(int maxPerRoute, int maxTotal, long keepAliveMillis, long idleEvictMillis,
+                             int connectTimeoutMillis, int socketTimeoutMillis) {
+        connectionManager = new PoolingClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setMaxTotal(maxTotal);
+
+        httpClientConfig = HttpClientConfig.httpClientConfig()
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeoutMillis)
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, socketTimeoutMillis)
+                .httpClientFactory(() -> {
+                    DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+                    // Перехватчики вызываются в потоке запроса после получения соединения и после чтения заголовков ответа
+                    client.addRequestInterceptor((request, context) -> PhaseClock.markCurrent(Phase.CONNECT));
+                    client.addResponseInterceptor((response, context) -> PhaseClock.markCurrent(Phase.TTFB), 0);
+                    client.setKeepAliveStrategy((response, context) -> {
+                        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                        return serverKeepAlive > 0 ? serverKeepAlive : keepAliveMillis;
+                    });
+                    return client;
+                })
+                .reuseHttpClientInstance();
+
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-idle-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleEvictMillis, TimeUnit.MILLISECONDS);
+        }, idleEvictMillis, idleEvictMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Создает клиент с параметрами из системных свойств.
+     */
+    public static PooledHttpClient fromSystemProperties() {
+        return new PooledHttpClient(
+                Integer.getInteger("http.maxPerRoute", 50),
+                Integer.getInteger("http.maxTotal", 200),
+                TimeUnit.SECONDS.toMillis(Long.getLong("http.keepAliveSeconds", 30)),
+                TimeUnit.SECONDS.toMillis(Long.getLong("http.idleEvictSeconds", 30)),
+                Integer.getInteger("http.connectTimeoutMillis", 5000),
+                Integer.getInteger("http.socketTimeoutMillis", 30000));
+    }
+
+    /**
+     * @return Конфигурация RestAssured, переиспользующая один экземпляр клиента поверх общего пула.
+     */
+    public HttpClientConfig httpClientConfig() {
+        return httpClientConfig;
+    }
+
+    /**
+     * @return Статистика пула: занятые (leased), ожидающие (pending) и свободные (available) соединения.
+     */
+    public PoolStats stats() {
+        return connectionManager.getTotalStats();
+    }
+}
@@ -0,0 +1,200 @@
+package client;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Клиентский кэш ответов read-only эндпоинтов каталога: {@code GET /products} и {@code GET /products/{id}}.
+ * Хранит не больше {@code maxEntries} ответов с вытеснением давно не использованных (LRU). Ответ моложе {@code ttl}
+ * отдается без запроса к серверу; более старый перепроверяется условным запросом с {@code If-None-Match}
+ * (или {@code If-Modified-Since}, если сервер не прислал {@code ETag}), и на 304 отдается из кэша.
+ * Изменяющие запросы к {@code /products} сбрасывают затронутый продукт и список продуктов.
+ * <p>
+ * Параметры задаются системными свойствами: {@code http.cache=true} включает кэш, {@code http.cache.maxEntries}
+ * (по умолчанию 1000) и {@code http.cache.ttlSeconds} (по умолчанию 30).
+ */
+public class ResponseCache {
+
+    private static final Pattern CACHEABLE_PATH = Pattern.compile("/products(/\\d+)?");
+    private static final String PRODUCTS = "/products";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResponseCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return Кэш с параметрами из системных свойств или {@code null}, если кэш не включен через {@code -Dhttp.cache=true}.
+     */
+    public static ResponseCache fromSystemProperties() {
+        if (!Boolean.getBoolean("http.cache")) {
+            return null;
+        }
+        return new ResponseCache(Integer.getInteger("http.cache.maxEntries", 1000),
+                Duration.ofSeconds(Long.getLong("http.cache.ttlSeconds", 30)));
+    }
+
+    /**
+     * @return {@code true} для запросов, ответы на которые можно кэшировать.
+     */
+    public static boolean isCacheable(String method, String path) {
+        return "GET".equals(method) && CACHEABLE_PATH.matcher(path).matches();
+    }
+
+    /**
+     * Ищет ответ в кэше. Свежую запись ({@link Entry#isFresh()}) можно отдать через {@link #serve(Entry)} без запроса
+     * к серверу, устаревшую нужно перепроверить условным запросом с заголовками {@link Entry#validators()}.
+     *
+     * @return Запись кэша или {@code null}, если ответа нет.
+     */
+    public Entry lookup(String path) {
+        synchronized (entries) {
+            return entries.get(path);
+        }
+    }
+
+    /**
+     * Отдает свежую запись как ответ без обращения к серверу и засчитывает попадание.
+     */
+    public Response serve(Entry entry) {
+        hits.increment();
+        return entry.toResponse();
+    }
+
+    /**
+     * Учитывает ответ сервера на запрос, не обслуженный из кэша.
+     *
+     * @param stale Устаревшая запись, по которой выполнялась перепроверка, или {@code null}.
+     * @return Ответ для теста: из кэша, если сервер ответил 304, иначе ответ сервера.
+     */
+    public Response onResponse(String path, Entry stale, Response response) {
+        if (response.getStatusCode() == 304 && stale != null) {
+            notModified.increment();
+            stale.storedAtNanos = System.nanoTime();
+            return stale.toResponse();
+        }
+        misses.increment();
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        synchronized (entries) {
+            if (response.getStatusCode() == 200) {
+                entries.put(path, new Entry(response.asByteArray(), response.getContentType(), etag, lastModified));
+            } else {
+                entries.remove(path);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Сбрасывает записи, которые мог изменить запрос {@code method path}: сам продукт и список продуктов.
+     * Вызывается после получения ответа, чтобы параллельный {@code GET} не сохранил данные до изменения.
+     */
+    public void invalidate(String method, String path) {
+        if ("GET".equals(method) || !path.startsWith(PRODUCTS)) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(path) != null) {
+                invalidations.increment();
+            }
+            if (!path.equals(PRODUCTS) && entries.remove(PRODUCTS) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * @return Сводка: попадания, промахи, ответы 304 и их доли от всех запросов к кэшируемым эндпоинтам.
+     */
+    public String stats() {
+        long total = hits.sum() + misses.sum() + notModified.sum();
+        return String.format("%d requests, %d hits (%.1f%%), %d revalidated by 304 (%.1f%%), %d misses (%.1f%%), %d invalidations",
+                total, hits.sum(), percent(hits.sum(), total), notModified.sum(), percent(notModified.sum(), total),
+                misses.sum(), percent(misses.sum(), total), invalidations.sum());
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    /**
+     * Закэшированный ответ.
+     */
+    public final class Entry {
+        private final byte[] body;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+        private volatile long storedAtNanos = System.nanoTime();
+
+        Entry(byte[] body, String contentType, String etag, String lastModified) {
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - storedAtNanos < ttlNanos;
+        }
+
+        /**
+         * @return Заголовки условного запроса для перепроверки; пустой список, если сервер не прислал валидаторов.
+         */
+        public List<Header> validators() {
+            List<Header> headers = new ArrayList<>(1);
+            if (etag != null) {
+                headers.add(new Header("If-None-Match", etag));
+            } else if (lastModified != null) {
+                headers.add(new Header("If-Modified-Since", lastModified));
+            }
+            return headers;
+        }
+
+        /**
+         * @return Новый {@link Response} с телом из кэша и статусом 200.
+         */
+        public Response toResponse() {
+            List<Header> headers = new ArrayList<>();
+            if (etag != null) {
+                headers.add(new Header("ETag", etag));
+            }
+            if (lastModified != null) {
+                headers.add(new Header("Last-Modified", lastModified));
+            }
+            return new ResponseBuilder()
+                    .setStatusCode(200)
+                    .setStatusLine("HTTP/1.1 200 (cached)")
+                    .setHeaders(new Headers(headers))
+                    .setContentType(contentType == null ? "application/json" : contentType)
+                    .setBody(body)
+                    .build();
+        }
+    }
+}
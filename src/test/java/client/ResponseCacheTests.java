@@ -0,0 +1,180 @@
+package client;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты клиентского кэша ответов: срок свежести, перепроверка ответом 304, вытеснение LRU
+ * и сброс записей изменяющими запросами к {@code /products}.
+ */
+public class ResponseCacheTests {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+    private static final String ETAG = "\"catalog-1\"";
+    private static final String LAST_MODIFIED = "Mon, 05 Oct 2026 10:00:00 GMT";
+
+    @Test
+    public void OnlyProductReadsAreCacheableTest() {
+        assertTrue(ResponseCache.isCacheable("GET", "/products"));
+        assertTrue(ResponseCache.isCacheable("GET", "/products/42"));
+        assertFalse(ResponseCache.isCacheable("PUT", "/products/42"));
+        assertFalse(ResponseCache.isCacheable("GET", "/products/abc"));
+        assertFalse(ResponseCache.isCacheable("GET", "/cart"));
+    }
+
+    @Test
+    public void ResponseIsServedWhileFreshTest() {
+        ResponseCache cache = new ResponseCache(10, HOUR);
+        Response stored = cache.onResponse("/products/1", null, response(200, "{\"id\":1}", ETAG, LAST_MODIFIED));
+        assertEquals(stored.getStatusCode(), 200);
+
+        ResponseCache.Entry entry = cache.lookup("/products/1");
+        assertNotNull(entry);
+        assertTrue(entry.isFresh());
+        Response served = cache.serve(entry);
+        assertEquals(served.getStatusCode(), 200);
+        assertEquals(served.asString(), "{\"id\":1}");
+        assertEquals(served.getHeader("ETag"), ETAG);
+        assertTrue(cache.stats().startsWith("2 requests, 1 hits"), cache.stats());
+    }
+
+    @Test
+    public void EntryOlderThanTtlIsStaleAndCarriesValidatorsTest() {
+        ResponseCache cache = new ResponseCache(10, Duration.ZERO);
+        cache.onResponse("/products/1", null, response(200, "{}", ETAG, LAST_MODIFIED));
+        cache.onResponse("/products/2", null, response(200, "{}", null, LAST_MODIFIED));
+        cache.onResponse("/products/3", null, response(200, "{}", null, null));
+
+        assertFalse(cache.lookup("/products/1").isFresh());
+        assertEquals(describe(cache.lookup("/products/1").validators()), List.of("If-None-Match: " + ETAG));
+        assertEquals(describe(cache.lookup("/products/2").validators()), List.of("If-Modified-Since: " + LAST_MODIFIED));
+        assertEquals(cache.lookup("/products/3").validators(), List.of());
+    }
+
+    @Test
+    public void NotModifiedRenewsStaleEntryTest() throws InterruptedException {
+        Duration ttl = Duration.ofMillis(300);
+        ResponseCache cache = new ResponseCache(10, ttl);
+        cache.onResponse("/products", null, response(200, "[{\"id\":1}]", ETAG, null));
+        Thread.sleep(ttl.toMillis() + 100);
+        ResponseCache.Entry stale = cache.lookup("/products");
+        assertFalse(stale.isFresh());
+
+        Response revalidated = cache.onResponse("/products", stale, response(304, "", ETAG, null));
+
+        assertEquals(revalidated.getStatusCode(), 200, "304 should be answered from the cache");
+        assertEquals(revalidated.asString(), "[{\"id\":1}]");
+        assertTrue(cache.lookup("/products").isFresh(), "Revalidated entry should be fresh again");
+        assertTrue(cache.stats().contains("1 revalidated by 304"), cache.stats());
+    }
+
+    @Test
+    public void NotModifiedWithoutEntryIsReturnedAsIsTest() {
+        ResponseCache cache = new ResponseCache(10, HOUR);
+        Response response = cache.onResponse("/products/1", null, response(304, "", ETAG, null));
+        assertEquals(response.getStatusCode(), 304);
+        assertNull(cache.lookup("/products/1"));
+    }
+
+    @Test
+    public void ErrorResponseDropsEntryTest() {
+        ResponseCache cache = new ResponseCache(10, Duration.ZERO);
+        cache.onResponse("/products/1", null, response(200, "{}", ETAG, null));
+        ResponseCache.Entry stale = cache.lookup("/products/1");
+
+        Response response = cache.onResponse("/products/1", stale, response(404, "{\"message\":\"Not found\"}", null, null));
+
+        assertEquals(response.getStatusCode(), 404);
+        assertNull(cache.lookup("/products/1"), "Deleted product should not stay in the cache");
+    }
+
+    @Test
+    public void LeastRecentlyUsedEntryIsEvictedTest() {
+        ResponseCache cache = new ResponseCache(2, HOUR);
+        cache.onResponse("/products/1", null, response(200, "{}", ETAG, null));
+        cache.onResponse("/products/2", null, response(200, "{}", ETAG, null));
+        // Чтение делает /products/1 недавно использованным, вытесняется /products/2
+        assertNotNull(cache.lookup("/products/1"));
+
+        cache.onResponse("/products/3", null, response(200, "{}", ETAG, null));
+
+        assertNotNull(cache.lookup("/products/1"));
+        assertNull(cache.lookup("/products/2"));
+        assertNotNull(cache.lookup("/products/3"));
+    }
+
+    @Test
+    public void ProductChangeInvalidatesProductAndListTest() {
+        for (String method : new String[]{"PUT", "DELETE"}) {
+            ResponseCache cache = cacheWith("/products", "/products/1", "/products/2");
+
+            cache.invalidate(method, "/products/1");
+
+            assertNull(cache.lookup("/products/1"), method);
+            assertNull(cache.lookup("/products"), method);
+            assertNotNull(cache.lookup("/products/2"), method + " should not touch other products");
+            assertTrue(cache.stats().endsWith("2 invalidations"), cache.stats());
+        }
+    }
+
+    @Test
+    public void ProductCreationInvalidatesListOnlyTest() {
+        ResponseCache cache = cacheWith("/products", "/products/1");
+
+        cache.invalidate("POST", "/products");
+
+        assertNull(cache.lookup("/products"));
+        assertNotNull(cache.lookup("/products/1"));
+    }
+
+    @Test
+    public void ReadsAndOtherEndpointsDoNotInvalidateTest() {
+        ResponseCache cache = cacheWith("/products", "/products/1");
+
+        cache.invalidate("GET", "/products/1");
+        cache.invalidate("POST", "/cart");
+        cache.invalidate("DELETE", "/cart/1");
+
+        assertNotNull(cache.lookup("/products"));
+        assertNotNull(cache.lookup("/products/1"));
+        assertTrue(cache.stats().endsWith("0 invalidations"), cache.stats());
+    }
+
+    private static ResponseCache cacheWith(String... paths) {
+        ResponseCache cache = new ResponseCache(10, HOUR);
+        for (String path : paths) {
+            cache.onResponse(path, null, response(200, "{}", ETAG, null));
+        }
+        return cache;
+    }
+
+    private static Response response(int status, String body, String etag, String lastModified) {
+        List<Header> headers = new ArrayList<>();
+        if (etag != null) {
+            headers.add(new Header("ETag", etag));
+        }
+        if (lastModified != null) {
+            headers.add(new Header("Last-Modified", lastModified));
+        }
+        return new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status)
+                .setHeaders(new Headers(headers))
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+
+    private static List<String> describe(List<Header> headers) {
+        return headers.stream().map(header -> header.getName() + ": " + header.getValue()).toList();
+    }
+}
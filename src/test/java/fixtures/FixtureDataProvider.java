@@ -0,0 +1,97 @@
+package fixtures;
+
+import model.AddToCartRequest;
+import model.NewProduct;
+import model.UpdatedProduct;
+import org.testng.annotations.DataProvider;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Провайдеры данных TestNG, читающие входные данные тестов из файлов фикстур через {@link FixtureReader}.
+ * Возвращают ленивый {@link Iterator}: строка файла разбирается в объект модели, только когда TestNG запрашивает
+ * следующий набор параметров, поэтому в куче одновременно находится один случай, а не вся матрица.
+ * <p>
+ * Файлы задаются системными свойствами {@code fixtures.products}, {@code fixtures.updates}
+ * и {@code fixtures.cartLines}; по умолчанию используются небольшие примеры из ресурсов {@code fixtures/}.
+ * {@code -Dfixtures.limit=N} ограничивает число строк из каждого файла.
+ * Колонки: {@code name, category, price, discount} для продуктов и обновлений, {@code product_id, quantity}
+ * для позиций корзины.
+ */
+public final class FixtureDataProvider {
+
+    private FixtureDataProvider() {
+    }
+
+    @DataProvider(name = "products")
+    public static Iterator<Object[]> products() {
+        return rows("fixtures.products", "fixtures/products.ndjson",
+                row -> new NewProduct(row.getString("name"), row.getString("category"),
+                        row.getDouble("price"), row.getDouble("discount")));
+    }
+
+    @DataProvider(name = "updates")
+    public static Iterator<Object[]> updates() {
+        return rows("fixtures.updates", "fixtures/updates.csv",
+                row -> new UpdatedProduct(row.getString("name"), row.getString("category"),
+                        row.getDouble("price"), row.getDouble("discount")));
+    }
+
+    /**
+     * Позиции корзины; {@code product_id} 0 или пустое значение означает продукт, созданный тестом.
+     * Ненулевой {@code product_id} должен ссылаться на существующий продукт каталога: тест читает его цену
+     * и скидку через {@code GET /products/{id}}, чтобы сверить корзину с моделью.
+     */
+    @DataProvider(name = "cartLines")
+    public static Iterator<Object[]> cartLines() {
+        return rows("fixtures.cartLines", "fixtures/cart-lines.csv",
+                row -> new AddToCartRequest(row.getInt("product_id", 0), row.getInt("quantity")));
+    }
+
+    /**
+     * Ленивый итератор наборов параметров из одной колонки — объекта, построенного по строке фикстуры.
+     */
+    public static Iterator<Object[]> rows(Path file, Function<FixtureRow, ?> mapper) {
+        FixtureReader reader = new FixtureReader(file);
+        long limit = Long.getLong("fixtures.limit", Long.MAX_VALUE);
+        return new Iterator<>() {
+            private long returned;
+
+            @Override
+            public boolean hasNext() {
+                return returned < limit && reader.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                returned++;
+                return new Object[]{mapper.apply(reader.next())};
+            }
+        };
+    }
+
+    private static Iterator<Object[]> rows(String property, String defaultResource, Function<FixtureRow, ?> mapper) {
+        String file = System.getProperty(property);
+        return rows(file != null ? Path.of(file) : resource(defaultResource), mapper);
+    }
+
+    private static Path resource(String name) {
+        URL url = FixtureDataProvider.class.getClassLoader().getResource(name);
+        if (url == null) {
+            throw new IllegalArgumentException("Fixture resource not found: " + name);
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Fixture resource is not a file: " + name, e);
+        }
+    }
+}
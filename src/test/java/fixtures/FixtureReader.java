@@ -0,0 +1,145 @@
+package fixtures;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Ленивое чтение строк фикстур из файла NDJSON ({@code .ndjson}, {@code .jsonl}) или CSV ({@code .csv}).
+ * Файл читается через {@link MappedLines}, каждая строка разбирается только при обращении к {@link #next()},
+ * поэтому объем файла не ограничен размером кучи.
+ * <p>
+ * В NDJSON каждая строка — плоский JSON объект. В CSV первая строка — заголовок с именами колонок,
+ * значения могут быть заключены в двойные кавычки (кавычка внутри значения удваивается).
+ */
+public final class FixtureReader implements Iterator<FixtureRow> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final MappedLines lines;
+    private final boolean csv;
+    private final List<String> header = new ArrayList<>();
+    private final Map<String, String> values = new LinkedHashMap<>();
+    private final FixtureRow row;
+    private boolean advanced;
+    private boolean hasNext;
+
+    public FixtureReader(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            csv = true;
+        } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            csv = false;
+        } else {
+            throw new IllegalArgumentException("Fixture file must be .ndjson, .jsonl or .csv: " + file);
+        }
+        this.lines = new MappedLines(file);
+        this.row = new FixtureRow(file, values);
+        if (csv) {
+            if (!lines.next()) {
+                throw new IllegalArgumentException("CSV fixture has no header: " + file);
+            }
+            header.addAll(splitCsv(decode()));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!advanced) {
+            hasNext = lines.next();
+            advanced = true;
+        }
+        return hasNext;
+    }
+
+    /**
+     * @return Разобранная строка; объект переиспользуется и действителен до следующего вызова {@link #next()}.
+     * @throws IllegalArgumentException если строку не удалось разобрать.
+     */
+    @Override
+    public FixtureRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        advanced = false;
+        values.clear();
+        row.setLineNumber(lines.lineNumber());
+        if (csv) {
+            parseCsv();
+        } else {
+            parseJson();
+        }
+        return row;
+    }
+
+    private void parseCsv() {
+        List<String> fields = splitCsv(decode());
+        if (fields.size() != header.size()) {
+            throw row.error("expected " + header.size() + " columns but got " + fields.size());
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            values.put(header.get(i), fields.get(i));
+        }
+    }
+
+    private void parseJson() {
+        try (JsonParser parser = JSON_FACTORY.createParser(lines.bytes(), 0, lines.length())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw row.error("expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    throw row.error("nested value in field " + field);
+                }
+                values.put(field, value == JsonToken.VALUE_NULL ? null : parser.getText());
+            }
+        } catch (IOException e) {
+            throw row.error("malformed JSON: " + e.getMessage());
+        }
+    }
+
+    private String decode() {
+        return new String(lines.bytes(), 0, lines.length(), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
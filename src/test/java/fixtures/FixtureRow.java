@@ -0,0 +1,78 @@
+package fixtures;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Одна строка фикстуры: значения колонок (или полей NDJSON) в виде строк с типизированным доступом.
+ * Экземпляр переиспользуется {@link FixtureReader} для всех строк файла.
+ */
+public final class FixtureRow {
+
+    private final Path file;
+    private final Map<String, String> values;
+    private long lineNumber;
+
+    FixtureRow(Path file, Map<String, String> values) {
+        this.file = file;
+        this.values = values;
+    }
+
+    void setLineNumber(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @throws IllegalArgumentException если колонки нет или значение пустое.
+     */
+    public String getString(String column) {
+        String value = values.get(column);
+        if (value == null || value.isEmpty()) {
+            throw error("missing value of " + column);
+        }
+        return value;
+    }
+
+    /**
+     * @return Значение колонки или {@code defaultValue}, если колонки нет или значение пустое.
+     */
+    public String getString(String column, String defaultValue) {
+        String value = values.get(column);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    public double getDouble(String column) {
+        String value = getString(column);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw error(column + " is not a number: " + value);
+        }
+    }
+
+    public int getInt(String column) {
+        String value = getString(column);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw error(column + " is not an integer: " + value);
+        }
+    }
+
+    public int getInt(String column, int defaultValue) {
+        return getString(column, null) == null ? defaultValue : getInt(column);
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(file + ":" + lineNumber + ": " + message);
+    }
+
+    @Override
+    public String toString() {
+        return file.getFileName() + ":" + lineNumber + " " + values;
+    }
+}
@@ -0,0 +1,133 @@
+package fixtures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Построчное чтение файла, отображенного в память ({@link FileChannel#map}), без чтения файла в кучу.
+ * Файл отображается окнами по {@code segmentSize} байт; строка, пересекающая границу окна, читается из следующего окна,
+ * отображенного с начала этой строки. В куче находится только текущая строка в переиспользуемом буфере.
+ * Пустые строки и {@code \r} перед {@code \n} пропускаются.
+ */
+final class MappedLines {
+
+    /** Размер окна отображения по умолчанию. */
+    static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+    private final Path file;
+    private final long fileSize;
+    private final int segmentSize;
+
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long position;
+
+    private byte[] line = new byte[256];
+    private int length;
+    private long lineNumber;
+
+    MappedLines(Path file) {
+        this(file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    MappedLines(Path file, int segmentSize) {
+        this.file = file;
+        this.segmentSize = segmentSize;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.fileSize = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open fixture file " + file, e);
+        }
+    }
+
+    /**
+     * Переходит к следующей непустой строке.
+     *
+     * @return {@code false}, если строк больше нет.
+     */
+    boolean next() {
+        while (position < fileSize) {
+            long end = findLineEnd();
+            int size = (int) (end - position);
+            ensureCapacity(size);
+            segment.get((int) (position - segmentStart), line, 0, size);
+            position = Math.min(end + 1, fileSize);
+            lineNumber++;
+            length = size > 0 && line[size - 1] == '\r' ? size - 1 : size;
+            if (length > 0) {
+                return true;
+            }
+        }
+        length = 0;
+        return false;
+    }
+
+    /**
+     * @return Буфер с текущей строкой; действителен до следующего вызова {@link #next()}.
+     */
+    byte[] bytes() {
+        return line;
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * @return Номер текущей строки в файле, начиная с 1.
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Ищет конец строки, начинающейся в {@link #position}, при необходимости отображая окно с начала строки.
+     *
+     * @return Смещение символа {@code \n} или размер файла для последней строки без перевода строки.
+     */
+    private long findLineEnd() {
+        if (segment == null || position >= segmentStart + segment.limit()) {
+            map(position);
+        }
+        while (true) {
+            int limit = segment.limit();
+            for (int i = (int) (position - segmentStart); i < limit; i++) {
+                if (segment.get(i) == '\n') {
+                    return segmentStart + i;
+                }
+            }
+            long segmentEnd = segmentStart + limit;
+            if (segmentEnd >= fileSize) {
+                return fileSize;
+            }
+            if (segmentStart == position) {
+                throw new IllegalStateException(file + ": line " + (lineNumber + 1) + " is longer than " + segmentSize + " bytes");
+            }
+            map(position);
+        }
+    }
+
+    private void map(long start) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Отображение остается действительным после закрытия канала
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, fileSize - start));
+            segmentStart = start;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map fixture file " + file, e);
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (line.length < size) {
+            line = new byte[Math.max(size, line.length * 2)];
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package fixtures;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты построчного чтения {@link MappedLines} с маленьким окном отображения: строки на границе окон,
+ * переводы строк CRLF, пустые строки и последняя строка без перевода строки.
+ */
+public class MappedLinesTests {
+
+    @Test
+    public void LinesCrossingWindowBoundaryAreReadWholeTest() throws IOException {
+        String content = "alpha\nbravo-charlie\ndelta\n";
+        List<String> expected = List.of("1:alpha", "2:bravo-charlie", "3:delta");
+        // Самая длинная строка с переводом строки занимает 14 байт; перебираем все положения границы окна
+        for (int segmentSize = 14; segmentSize <= content.length() + 1; segmentSize++) {
+            assertEquals(read(content, segmentSize), expected, "segmentSize " + segmentSize);
+        }
+    }
+
+    @Test
+    public void CrlfAndBlankLinesAreSkippedTest() throws IOException {
+        String content = "a\r\nbb\r\n\r\n\nccc\r\n";
+        List<String> expected = List.of("1:a", "2:bb", "5:ccc");
+        // Граница окна проходит и между \r и \n
+        for (int segmentSize = 6; segmentSize <= content.length() + 1; segmentSize++) {
+            assertEquals(read(content, segmentSize), expected, "segmentSize " + segmentSize);
+        }
+    }
+
+    @Test
+    public void LastLineWithoutNewlineIsReadTest() throws IOException {
+        assertEquals(read("first\nlast", 7), List.of("1:first", "2:last"));
+        assertEquals(read("last\r", 7), List.of("1:last"));
+    }
+
+    @Test
+    public void EmptyFileHasNoLinesTest() throws IOException {
+        assertEquals(read("", 8), List.of());
+        assertEquals(read("\n\r\n", 8), List.of());
+    }
+
+    @Test
+    public void LineLongerThanWindowIsRejectedTest() throws IOException {
+        IllegalStateException e = expectThrows(IllegalStateException.class, () -> read("ok\nmuch-too-long\nok\n", 8));
+        assertTrue(e.getMessage().contains("line 2 is longer than 8 bytes"), e.getMessage());
+    }
+
+    /**
+     * Читает содержимое через {@link MappedLines} с окном {@code segmentSize} байт.
+     *
+     * @return Строки в виде {@code номер:текст}.
+     */
+    private static List<String> read(String content, int segmentSize) throws IOException {
+        Path file = Files.createTempFile("mapped-lines", ".txt");
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+            MappedLines lines = new MappedLines(file, segmentSize);
+            List<String> result = new ArrayList<>();
+            while (lines.next()) {
+                result.add(lines.lineNumber() + ":" + new String(lines.bytes(), 0, lines.length(), StandardCharsets.UTF_8));
+            }
+            assertFalse(lines.next(), "Exhausted reader should stay exhausted");
+            return result;
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Планировщик открытой модели нагрузки: запросы отправляются по расписанию {@link RateProfile}
+ * независимо от того, ответил ли сервер на предыдущие. В закрытой модели (цикл запрос-ответ) замедление сервера
+ * снижает частоту запросов и прячет хвост задержек (coordinated omission); здесь этого не происходит.
+ * <p>
+ * Задержка каждого запроса считается от запланированного времени отправки, а не от фактического, поэтому
+ * отставание самого генератора тоже попадает в перцентили. Для сравнения ведется вторая статистика — от фактической
+ * отправки. Запросы отправляются неблокирующе; число одновременно ожидающих ответа ограничено {@code maxInFlight},
+ * запросы сверх лимита не отправляются и учитываются как отброшенные.
+ */
+public class ArrivalScheduler {
+
+    /**
+     * Неблокирующая отправка одного запроса. Future завершается исключением при ошибке или неожиданном статусе.
+     */
+    @FunctionalInterface
+    public interface Arrival {
+        CompletableFuture<?> send();
+    }
+
+    /**
+     * Шаг смеси запросов с весом: чем больше вес, тем чаще шаг встречается в расписании.
+     */
+    public static class Step {
+        private final String method;
+        private final String endpoint;
+        private final int weight;
+        private final Arrival arrival;
+
+        public Step(String method, String endpoint, int weight, Arrival arrival) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Step weight must be positive: " + method + " " + endpoint);
+            }
+            this.method = method;
+            this.endpoint = endpoint;
+            this.weight = weight;
+            this.arrival = arrival;
+        }
+    }
+
+    private final RateProfile profile;
+    private final Step[] cycle;
+    private final int maxInFlight;
+
+    /**
+     * @param mix Шаги с весами; порядок шагов в расписании перемешивается с фиксированным seed.
+     * @param maxInFlight Максимум запросов, ожидающих ответа.
+     */
+    public ArrivalScheduler(RateProfile profile, List<Step> mix, int maxInFlight) {
+        List<Step> steps = new ArrayList<>();
+        for (Step step : mix) {
+            for (int i = 0; i < step.weight; i++) {
+                steps.add(step);
+            }
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("Request mix must not be empty");
+        }
+        Collections.shuffle(steps, new Random(42));
+        this.profile = profile;
+        this.cycle = steps.toArray(new Step[0]);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Выполняет прогон в текущем потоке и ждет ответов на все отправленные запросы.
+     */
+    public Result run() {
+        LatencyStats fromIntended = new LatencyStats();
+        LatencyStats fromActual = new LatencyStats();
+        LongAdder dropped = new LongAdder();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long maxLagNanos = 0;
+        long sent = 0;
+
+        long started = System.nanoTime();
+        for (long index = 0; ; index++) {
+            long offset = profile.offsetNanos(index);
+            if (offset < 0) {
+                break;
+            }
+            long intended = started + offset;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Step step = cycle[(int) (index % cycle.length)];
+            if (!inFlight.tryAcquire()) {
+                dropped.increment();
+                continue;
+            }
+            long actual = System.nanoTime();
+            maxLagNanos = Math.max(maxLagNanos, actual - intended);
+            sent++;
+            CompletableFuture<?> future;
+            try {
+                future = step.arrival.send();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((ignored, error) -> {
+                long completed = System.nanoTime();
+                fromIntended.record(step.method, step.endpoint, completed - intended, error != null);
+                fromActual.record(step.method, step.endpoint, completed - actual, error != null);
+                inFlight.release();
+            });
+        }
+        inFlight.acquireUninterruptibly(maxInFlight);
+        inFlight.release(maxInFlight);
+        return new Result(fromIntended, fromActual, sent, dropped.sum(), maxLagNanos, System.nanoTime() - started);
+    }
+
+    /**
+     * Итог прогона открытой модели.
+     */
+    public static class Result {
+        private final LatencyStats fromIntended;
+        private final LatencyStats fromActual;
+        private final long sent;
+        private final long dropped;
+        private final long maxLagNanos;
+        private final long elapsedNanos;
+
+        Result(LatencyStats fromIntended, LatencyStats fromActual, long sent, long dropped, long maxLagNanos,
+               long elapsedNanos) {
+            this.fromIntended = fromIntended;
+            this.fromActual = fromActual;
+            this.sent = sent;
+            this.dropped = dropped;
+            this.maxLagNanos = maxLagNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Задержки от запланированного времени отправки — основная метрика. */
+        public LatencyStats getFromIntended() {
+            return fromIntended;
+        }
+
+        /** Задержки от фактической отправки — то, что показала бы закрытая модель. */
+        public LatencyStats getFromActual() {
+            return fromActual;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        /** Запросы, не отправленные из-за лимита ожидающих ответа. */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * Формирует отчет: обе статистики задержек, число отправленных и отброшенных запросов
+         * и максимальное отставание генератора от расписания.
+         */
+        public String report() {
+            return String.format("Sent %d, dropped %d, max scheduler lag %.1f ms%n"
+                            + "Latency from intended send time:%n%s"
+                            + "Latency from actual send time (closed-model view):%n%s",
+                    sent, dropped, maxLagNanos / 1e6, fromIntended.report(elapsedNanos), fromActual.report(elapsedNanos));
+        }
+    }
+}
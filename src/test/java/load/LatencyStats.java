@@ -0,0 +1,115 @@
+package load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Потокобезопасный сборщик задержек запросов для нагрузочного прогона.
+ * Ведет отдельные гистограммы HdrHistogram по эндпоинтам ({@code "GET /products/{id}"})
+ * и по HTTP методам, а также счетчики ошибок. Задержки хранятся в микросекундах.
+ */
+public class LatencyStats {
+
+    /** Максимальная отслеживаемая задержка — одна минута. */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final Map<String, Series> byEndpoint = new ConcurrentHashMap<>();
+    private final Map<String, Series> byMethod = new ConcurrentHashMap<>();
+
+    /**
+     * Записывает результат одного запроса.
+     *
+     * @param method HTTP метод запроса.
+     * @param endpoint Шаблон пути без конкретных идентификаторов, например {@code "/cart/{id}"}.
+     * @param elapsedNanos Время выполнения запроса в наносекундах.
+     * @param error {@code true}, если запрос завершился ошибкой или неожиданным статусом.
+     */
+    public void record(String method, String endpoint, long elapsedNanos, boolean error) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 1), HIGHEST_TRACKABLE_MICROS);
+        byEndpoint.computeIfAbsent(method + " " + endpoint, key -> new Series()).record(micros, error);
+        byMethod.computeIfAbsent(method, key -> new Series()).record(micros, error);
+    }
+
+    /**
+     * Приводит конкретный путь к шаблону эндпоинта: {@code "/cart/15"} -> {@code "/cart/{id}"}.
+     */
+    public static String endpointOf(String path) {
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    /**
+     * @return Копии гистограмм по эндпоинтам ({@code "GET /products/{id}"}), задержки в микросекундах.
+     */
+    public Map<String, Histogram> endpointHistograms() {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        byEndpoint.forEach((endpoint, series) -> histograms.put(endpoint, series.histogram.copy()));
+        return histograms;
+    }
+
+    public long totalRequests() {
+        return byMethod.values().stream().mapToLong(series -> series.histogram.getTotalCount()).sum();
+    }
+
+    public long totalErrors() {
+        return byMethod.values().stream().mapToLong(series -> series.errors.sum()).sum();
+    }
+
+    /**
+     * Формирует текстовый отчет с пропускной способностью и перцентилями p50/p90/p99/p99.9.
+     *
+     * @param elapsedNanos Длительность прогона, по которой считается пропускная способность.
+     */
+    public String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Total: %d requests, %d errors, %.1f s, %.1f req/s%n",
+                totalRequests(), totalErrors(), seconds, totalRequests() / seconds));
+        appendTable(report, "Endpoint", byEndpoint, seconds);
+        appendTable(report, "Method", byMethod, seconds);
+        return report.toString();
+    }
+
+    private static void appendTable(StringBuilder report, String title, Map<String, Series> series, double seconds) {
+        report.append(String.format("%-24s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                title, "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<String, Series> entry : new TreeMap<>(series).entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            report.append(String.format("%-24s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    entry.getValue().errors.sum(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Series {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        final LongAdder errors = new LongAdder();
+
+        void record(long micros, boolean error) {
+            histogram.recordValue(micros);
+            if (error) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Профиль частоты поступления запросов для открытой модели нагрузки: линейный разгон от {@code startRate}
+ * до {@code endRate} запросов в секунду за {@code rampSeconds}, затем постоянная частота {@code endRate}
+ * до конца прогона. При {@code rampSeconds = 0} частота постоянна.
+ * <p>
+ * Время отправки i-го запроса вычисляется из числа поступлений {@code N(t)} — интеграла частоты по времени, —
+ * поэтому расписание не зависит от того, как быстро отвечает сервер.
+ */
+public class RateProfile {
+
+    private final double startRate;
+    private final double endRate;
+    private final double rampSeconds;
+    private final double durationSeconds;
+
+    /**
+     * @throws IllegalArgumentException если частоты отрицательны, обе нулевые или длительности некорректны.
+     */
+    public RateProfile(double startRate, double endRate, double rampSeconds, double durationSeconds) {
+        if (startRate < 0 || endRate < 0 || startRate + endRate == 0) {
+            throw new IllegalArgumentException("Rates must not be negative and at least one must be positive");
+        }
+        if (rampSeconds < 0 || durationSeconds <= 0 || rampSeconds > durationSeconds) {
+            throw new IllegalArgumentException("Ramp must fit into a positive duration");
+        }
+        this.startRate = startRate;
+        this.endRate = endRate;
+        this.rampSeconds = rampSeconds;
+        this.durationSeconds = durationSeconds;
+    }
+
+    public static RateProfile constant(double rate, double durationSeconds) {
+        return new RateProfile(rate, rate, 0, durationSeconds);
+    }
+
+    /**
+     * @return Смещение запланированного времени отправки запроса с номером {@code index} (с нуля) от начала прогона
+     *         в наносекундах или {@code -1}, если запрос не помещается в длительность прогона.
+     */
+    public long offsetNanos(long index) {
+        double seconds;
+        double rampArrivals = (startRate + endRate) / 2 * rampSeconds;
+        if (index < rampArrivals) {
+            double acceleration = (endRate - startRate) / (2 * rampSeconds);
+            // Решение acceleration * t^2 + startRate * t = index
+            seconds = Math.abs(acceleration) < 1e-12 ? index / startRate
+                    : (-startRate + Math.sqrt(startRate * startRate + 4 * acceleration * index)) / (2 * acceleration);
+        } else if (endRate > 0) {
+            seconds = rampSeconds + (index - rampArrivals) / endRate;
+        } else {
+            return -1;
+        }
+        return seconds > durationSeconds ? -1 : (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public String toString() {
+        return rampSeconds == 0
+                ? String.format("%.1f req/s for %.0f s", endRate, durationSeconds)
+                : String.format("%.1f -> %.1f req/s over %.0f s, then %.1f req/s until %.0f s",
+                startRate, endRate, rampSeconds, endRate, durationSeconds);
+    }
+}
@@ -0,0 +1,157 @@
+package load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодический отчет длительного прогона. Раз в окно ({@code window}) забирает итоги из {@link WindowedStats}
+ * и печатает в консоль и в NDJSON файл строку с итогами окна и скользящего окна из последних {@code rollingWindows}
+ * окон (например, 10 с и 1 мин). Скользящее окно собирается сложением гистограмм, в памяти хранится не больше
+ * {@code rollingWindows} окон. Файл дописывается и сбрасывается на диск после каждой строки,
+ * поэтому за прогоном можно следить во время его выполнения. Ошибка записи не останавливает отчеты:
+ * она выводится в консоль, а первая из них выбрасывается из {@link #close()}.
+ */
+public class SoakReporter implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final WindowedStats stats;
+    private final Duration window;
+    private final int rollingWindows;
+    private final BufferedWriter writer;
+    private final Deque<WindowedStats.Window> recent = new ArrayDeque<>();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "soak-reporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long startedNanos = System.nanoTime();
+    private long windowStartedNanos = startedNanos;
+    private IOException writeFailure;
+
+    /**
+     * @param window Длина окна, например 10 секунд.
+     * @param rollingWindows Из скольких последних окон складывать скользящее окно, например 6 для одной минуты.
+     * @param file NDJSON файл для итогов окон; дописывается, если уже существует.
+     * @throws IOException если файл не удалось открыть.
+     */
+    public SoakReporter(WindowedStats stats, Duration window, int rollingWindows, Path file) throws IOException {
+        this.stats = stats;
+        this.window = window;
+        this.rollingWindows = rollingWindows;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public void start() {
+        long periodNanos = window.toNanos();
+        scheduler.scheduleAtFixedRate(this::report, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Закрывает текущее окно и выводит его итоги.
+     */
+    private synchronized void report() {
+        long now = System.nanoTime();
+        WindowedStats.Window current = stats.roll(now - windowStartedNanos);
+        windowStartedNanos = now;
+        recent.addLast(current);
+        if (recent.size() > rollingWindows) {
+            recent.removeFirst();
+        }
+        WindowedStats.Window rolling = recent.stream().reduce(WindowedStats.Window::merge).orElse(current);
+        long heapUsedMb = memory.getHeapMemoryUsage().getUsed() >> 20;
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(now - startedNanos);
+
+        System.out.printf("[%5ds] %s | %s | heap %d MB%n", elapsedSeconds,
+                describe(window.toSeconds() + "s", current), describe(rollingLabel(), rolling), heapUsedMb);
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("time", Instant.now().toString());
+        line.put("elapsedSeconds", elapsedSeconds);
+        line.put("window", toJson(current));
+        line.put("rolling", toJson(rolling));
+        line.put("clientHeapUsedMb", heapUsedMb);
+        try {
+            writer.write(MAPPER.writeValueAsString(line));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            // Исключение из периодической задачи молча отменило бы все следующие отчеты
+            System.out.println("Cannot write soak report line: " + e);
+            if (writeFailure == null) {
+                writeFailure = e;
+            }
+        }
+    }
+
+    private String rollingLabel() {
+        long seconds = window.toSeconds() * rollingWindows;
+        return seconds % 60 == 0 ? seconds / 60 + "m" : seconds + "s";
+    }
+
+    private static String describe(String label, WindowedStats.Window window) {
+        return String.format("%s: %.1f rps, errors %.2f%% %s, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                label, window.getRequestsPerSecond(), window.getErrorRate() * 100, window.getStatuses(),
+                window.getLatencyMillis(50), window.getLatencyMillis(99), window.getMaxLatencyMillis());
+    }
+
+    private static Map<String, Object> toJson(WindowedStats.Window window) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("requests", window.getRequests());
+        json.put("rps", window.getRequestsPerSecond());
+        json.put("errors", window.getErrors());
+        json.put("errorRate", window.getErrorRate());
+        json.put("statuses", window.getStatuses());
+        json.put("p50Millis", window.getLatencyMillis(50));
+        json.put("p90Millis", window.getLatencyMillis(90));
+        json.put("p99Millis", window.getLatencyMillis(99));
+        json.put("maxMillis", window.getMaxLatencyMillis());
+        return json;
+    }
+
+    /**
+     * Останавливает отчеты, выводит последнее неполное окно и закрывает файл.
+     *
+     * @throws IOException если не удалось записать хотя бы одну строку отчета или закрыть файл.
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(window.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        report();
+        writer.close();
+        synchronized (this) {
+            if (writeFailure != null) {
+                throw writeFailure;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package load;
+
+import model.User;
+import validation.CartModel;
+
+/**
+ * Состояние одного виртуального пользователя в нагрузочном прогоне.
+ * Заменяет общие поля {@code BaseTest} ({@code registeredUsername}, {@code accessToken}, {@code productId}),
+ * чтобы каждый виртуальный пользователь работал со своими учетными данными и токеном.
+ */
+public class VirtualUserSession {
+    private final User user;
+    private String accessToken;
+    private int productId;
+    private long iterations;
+    private final CartModel cart = new CartModel();
+
+    public VirtualUserSession(String username, String password) {
+        this.user = new User(username, password);
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    /**
+     * Ожидаемое содержимое корзины пользователя по его успешным добавлениям и удалениям.
+     */
+    public CartModel getCart() {
+        return cart;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public void incrementIterations() {
+        iterations++;
+    }
+}
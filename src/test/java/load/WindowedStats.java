@@ -0,0 +1,123 @@
+package load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Счетчики запросов для длительных прогонов, сбрасываемые по окнам времени.
+ * Запись lock-free: задержки пишутся в {@link Recorder} HdrHistogram, статусы — в {@link AtomicLongArray}
+ * по коду ответа. {@link #roll(long)} забирает накопленное за окно и обнуляет счетчики, поэтому память
+ * не растет с длительностью прогона. Каждое значение учитывается ровно в одном окне; задержка и статус запроса,
+ * завершившегося на границе окон, могут попасть в соседние окна.
+ */
+public class WindowedStats {
+
+    /** Код, под которым учитываются запросы без ответа (сетевая ошибка, таймаут). */
+    public static final int NO_RESPONSE = 0;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int MAX_STATUS = 599;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final AtomicLongArray statuses = new AtomicLongArray(MAX_STATUS + 1);
+    private final AtomicLongArray errors = new AtomicLongArray(MAX_STATUS + 1);
+    private Histogram recycled;
+
+    /**
+     * Записывает результат одного запроса.
+     *
+     * @param status Статусный код ответа или {@link #NO_RESPONSE}.
+     * @param elapsedNanos Время выполнения запроса в наносекундах.
+     * @param error {@code true}, если ответ не тот, что ожидал сценарий.
+     */
+    public void record(int status, long elapsedNanos, boolean error) {
+        int code = status < 0 || status > MAX_STATUS ? NO_RESPONSE : status;
+        recorder.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 1), HIGHEST_TRACKABLE_MICROS));
+        statuses.incrementAndGet(code);
+        if (error) {
+            errors.incrementAndGet(code);
+        }
+    }
+
+    /**
+     * Закрывает текущее окно и начинает следующее. Вызывается из одного потока-репортера.
+     *
+     * @param durationNanos Длительность закрываемого окна.
+     */
+    public synchronized Window roll(long durationNanos) {
+        Histogram histogram = recorder.getIntervalHistogram(recycled);
+        Window window = new Window(histogram.copy(), durationNanos);
+        recycled = histogram;
+        for (int code = 0; code <= MAX_STATUS; code++) {
+            long count = statuses.getAndSet(code, 0);
+            if (count > 0) {
+                window.statuses.put(code, count);
+            }
+            window.errors += errors.getAndSet(code, 0);
+        }
+        return window;
+    }
+
+    /**
+     * Итог одного окна или нескольких соседних окон, объединенных {@link #merge(Window)}.
+     */
+    public static class Window {
+        private final Histogram histogram;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private long errors;
+        private long durationNanos;
+
+        Window(Histogram histogram, long durationNanos) {
+            this.histogram = histogram;
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * @return Новое окно, охватывающее оба окна: гистограммы складываются, а не усредняются.
+         */
+        public Window merge(Window other) {
+            Window merged = new Window(histogram.copy(), durationNanos + other.durationNanos);
+            merged.histogram.add(other.histogram);
+            merged.statuses.putAll(statuses);
+            other.statuses.forEach((code, count) -> merged.statuses.merge(code, count, Long::sum));
+            merged.errors = errors + other.errors;
+            return merged;
+        }
+
+        public long getRequests() {
+            return histogram.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /** Число ответов по статусным кодам; {@link #NO_RESPONSE} — запросы без ответа. */
+        public Map<Integer, Long> getStatuses() {
+            return statuses;
+        }
+
+        public double getRequestsPerSecond() {
+            return durationNanos == 0 ? 0 : getRequests() / (durationNanos / 1e9);
+        }
+
+        public double getErrorRate() {
+            return getRequests() == 0 ? 0 : (double) errors / getRequests();
+        }
+
+        /** Задержка на перцентиле в миллисекундах. */
+        public double getLatencyMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public double getMaxLatencyMillis() {
+            return histogram.getMaxValue() / 1000.0;
+        }
+    }
+}
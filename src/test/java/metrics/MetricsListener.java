@@ -0,0 +1,18 @@
+package metrics;
+
+/**
+ * Получатель измерений фаз запросов из {@code BaseTest.performRequestAndVerify}.
+ * Вызывается в потоке, выполняющем запрос, поэтому реализация должна быть потокобезопасной и дешевой.
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    /**
+     * @param endpoint Метод и шаблон пути эндпоинта: {@code "GET /products/{id}"}.
+     * @param phase Завершившаяся фаза запроса.
+     * @param elapsedNanos Длительность фазы в наносекундах.
+     * @param allocatedBytes Байты, выделенные потоком за время фазы, или {@code -1}, если измерить не удалось
+     *                       (JVM не поддерживает учет аллокаций или фаза выполнялась в другом потоке).
+     */
+    void onPhase(String endpoint, Phase phase, long elapsedNanos, long allocatedBytes);
+}
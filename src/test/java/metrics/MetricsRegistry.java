@@ -0,0 +1,154 @@
+package metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Хранилище измерений фаз запросов в памяти: по паре эндпоинт/фаза ведется гистограмма длительностей
+ * (в микросекундах) и сумма выделенных байт. По окончании прогона экспортируется в текстовый формат
+ * Prometheus ({@link #toPrometheus()}) или в JSON ({@link #toJson()}).
+ */
+public class MetricsRegistry implements MetricsListener {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Map<Phase, Series>> series = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPhase(String endpoint, Phase phase, long elapsedNanos, long allocatedBytes) {
+        series.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(phase, key -> new Series())
+                .record(elapsedNanos, allocatedBytes);
+    }
+
+    /**
+     * Формирует метрики в текстовом формате Prometheus: summary {@code api_client_phase_seconds}
+     * с квантилями 0.5/0.9/0.99 и счетчик {@code api_client_phase_allocated_bytes_total}.
+     */
+    public String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP api_client_phase_seconds Client-side duration of a request phase.\n")
+                .append("# TYPE api_client_phase_seconds summary\n");
+        forEachSeries((labels, value) -> {
+            Histogram histogram = value.histogram;
+            for (double quantile : QUANTILES) {
+                text.append("api_client_phase_seconds{").append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.getValueAtPercentile(quantile * 100))).append('\n');
+            }
+            text.append("api_client_phase_seconds_sum{").append(labels).append("} ")
+                    .append(value.totalNanos.sum() / 1e9).append('\n');
+            text.append("api_client_phase_seconds_count{").append(labels).append("} ")
+                    .append(histogram.getTotalCount()).append('\n');
+        });
+        text.append("# HELP api_client_phase_allocated_bytes_total Bytes allocated by the calling thread during a request phase.\n")
+                .append("# TYPE api_client_phase_allocated_bytes_total counter\n");
+        forEachSeries((labels, value) -> {
+            if (value.measuredAllocations.sum() > 0) {
+                text.append("api_client_phase_allocated_bytes_total{").append(labels).append("} ")
+                        .append(value.allocatedBytes.sum()).append('\n');
+            }
+        });
+        return text.toString();
+    }
+
+    /**
+     * Формирует метрики в JSON: эндпоинт -> фаза -> число измерений, перцентили в миллисекундах
+     * и средние аллокации на вызов (если они измерялись).
+     */
+    public String toJson() {
+        Map<String, Map<String, Object>> json = new TreeMap<>();
+        series.forEach((endpoint, phases) -> {
+            Map<String, Object> byPhase = new LinkedHashMap<>();
+            new TreeMap<>(phases).forEach((phase, value) -> {
+                Histogram histogram = value.histogram;
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", histogram.getTotalCount());
+                stats.put("meanMillis", histogram.getMean() / 1000.0);
+                stats.put("p50Millis", histogram.getValueAtPercentile(50) / 1000.0);
+                stats.put("p90Millis", histogram.getValueAtPercentile(90) / 1000.0);
+                stats.put("p99Millis", histogram.getValueAtPercentile(99) / 1000.0);
+                stats.put("maxMillis", histogram.getMaxValue() / 1000.0);
+                long measured = value.measuredAllocations.sum();
+                if (measured > 0) {
+                    stats.put("allocatedBytesPerCall", value.allocatedBytes.sum() / measured);
+                }
+                byPhase.put(phase.name().toLowerCase(Locale.ROOT), stats);
+            });
+            json.put(endpoint, byPhase);
+        });
+        try {
+            return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Записывает метрики в файл в формате {@code prometheus} или {@code json}.
+     *
+     * @throws IllegalArgumentException если формат неизвестен.
+     * @throws UncheckedIOException если файл не удалось записать.
+     */
+    public void export(String format, Path file) {
+        String content = switch (format.toLowerCase(Locale.ROOT)) {
+            case "prometheus" -> toPrometheus();
+            case "json" -> toJson();
+            default -> throw new IllegalArgumentException("Unsupported metrics format: " + format);
+        };
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write metrics to " + file, e);
+        }
+    }
+
+    private void forEachSeries(SeriesConsumer consumer) {
+        new TreeMap<>(series).forEach((endpoint, phases) -> new TreeMap<>(phases).forEach((phase, value) ->
+                consumer.accept("endpoint=\"" + endpoint + "\",phase=\"" + phase.name().toLowerCase(Locale.ROOT) + "\"", value)));
+    }
+
+    private static double seconds(long micros) {
+        return micros / 1e6;
+    }
+
+    @FunctionalInterface
+    private interface SeriesConsumer {
+        void accept(String labels, Series series);
+    }
+
+    private static final class Series {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LongAdder measuredAllocations = new LongAdder();
+
+        void record(long elapsedNanos, long allocated) {
+            histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+            totalNanos.add(elapsedNanos);
+            if (allocated >= 0) {
+                allocatedBytes.add(allocated);
+                measuredAllocations.increment();
+            }
+        }
+    }
+}
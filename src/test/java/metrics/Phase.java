@@ -0,0 +1,17 @@
+package metrics;
+
+/**
+ * Фазы одного запроса на стороне клиента.
+ */
+public enum Phase {
+    /** Сериализация тела запроса в JSON байты. */
+    SERIALIZATION,
+    /** От готового тела до отправки запроса: аренда соединения из пула, установка TCP соединения, фильтры RestAssured. */
+    CONNECT,
+    /** От отправки запроса до получения заголовков ответа (time to first byte). */
+    TTFB,
+    /** Чтение тела ответа. */
+    DOWNLOAD,
+    /** Разбор тела ответа тестом: {@code jsonPath().getList}, {@code response.as}, {@code ObjectReader}. */
+    DESERIALIZATION
+}
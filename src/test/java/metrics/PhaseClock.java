@@ -0,0 +1,109 @@
+package metrics;
+
+import load.LatencyStats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.Supplier;
+
+/**
+ * Секундомер фаз одного запроса. Каждая отметка {@link #mark(Phase)} закрывает фазу, начавшуюся с предыдущей отметки,
+ * и передает ее длительность и число выделенных потоком байт в {@link MetricsListener}.
+ * <p>
+ * Последний запущенный в потоке секундомер доступен через {@link #current()}: так перехватчики HTTP клиента
+ * отмечают соединение и первый байт ответа, а тест — разбор тела ответа, не передавая секундомер явно.
+ */
+public final class PhaseClock {
+
+    private static final ThreadLocal<PhaseClock> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final MetricsListener listener;
+    private final String endpoint;
+    private final Thread owner = Thread.currentThread();
+    private volatile long markNanos;
+    private volatile long markAllocated;
+    private volatile boolean inFlight = true;
+
+    private PhaseClock(MetricsListener listener, String method, String path) {
+        this.listener = listener;
+        this.endpoint = method + " " + LatencyStats.endpointOf(path);
+        restart();
+    }
+
+    /**
+     * Запускает секундомер нового запроса и делает его текущим для потока.
+     */
+    public static PhaseClock start(MetricsListener listener, String method, String path) {
+        PhaseClock clock = new PhaseClock(listener, method, path);
+        CURRENT.set(clock);
+        return clock;
+    }
+
+    /**
+     * @return Секундомер последнего запроса, запущенного в этом потоке, или {@code null}.
+     */
+    public static PhaseClock current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Отмечает фазу текущего запроса потока, если он еще выполняется. Для перехватчиков HTTP клиента.
+     */
+    public static void markCurrent(Phase phase) {
+        PhaseClock clock = CURRENT.get();
+        if (clock != null && clock.inFlight) {
+            clock.mark(phase);
+        }
+    }
+
+    /**
+     * Закрывает фазу, начавшуюся с предыдущей отметки. Аллокации учитываются, только если отметка
+     * сделана в потоке, запустившем секундомер.
+     */
+    public void mark(Phase phase) {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        long previousAllocated = markAllocated;
+        listener.onPhase(endpoint, phase, now - markNanos,
+                allocated < 0 || previousAllocated < 0 ? -1 : allocated - previousAllocated);
+        markNanos = now;
+        markAllocated = allocated;
+    }
+
+    /**
+     * Отмечает окончание чтения ответа. После этого перехватчики HTTP клиента секундомер не трогают.
+     */
+    public void finish() {
+        mark(Phase.DOWNLOAD);
+        inFlight = false;
+    }
+
+    /**
+     * Измеряет действие как отдельную фазу, например разбор тела ответа.
+     */
+    public <T> T measure(Phase phase, Supplier<T> action) {
+        restart();
+        T result = action.get();
+        mark(phase);
+        return result;
+    }
+
+    private void restart() {
+        markNanos = System.nanoTime();
+        markAllocated = allocatedBytes();
+    }
+
+    private long allocatedBytes() {
+        return THREADS == null || Thread.currentThread() != owner ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean counter && counter.isThreadAllocatedMemorySupported()) {
+            counter.setThreadAllocatedMemoryEnabled(true);
+            return counter;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.scenario;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты компиляции сценария нагрузки: отклонение некорректных сценариев с понятным сообщением
+ * и исключение шагов с нулевым весом из выбора первого шага.
+ */
+public class ScenarioCompilerTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void UnknownScenarioFieldIsRejectedTest() {
+        String message = rejected("{\"stpes\": [], \"steps\": [{\"name\": \"a\", \"request\": \"GET /products\"}]}");
+        assertTrue(message.contains("scenario: unknown field stpes"), message);
+    }
+
+    @Test
+    public void UnknownStepFieldIsRejectedTest() {
+        String message = rejected("{\"steps\": [{\"name\": \"a\", \"request\": \"GET /products\", \"wieght\": 2}]}");
+        assertTrue(message.contains("step a: unknown field wieght"), message);
+    }
+
+    @Test
+    public void MalformedRequestIsRejectedTest() {
+        for (String request : new String[]{"FETCH /products", "GET products", "GET", ""}) {
+            String message = rejected("{\"steps\": [{\"name\": \"a\", \"request\": \"" + request + "\"}]}");
+            assertTrue(message.contains("step a: request must look like"), message);
+        }
+    }
+
+    @Test
+    public void UnknownVariableInPathIsRejectedTest() {
+        String message = rejected("{\"steps\": [{\"name\": \"a\", \"request\": \"GET /products/${productId}\"}]}");
+        assertTrue(message.contains("step a: request: Unknown variable ${productId}"), message);
+    }
+
+    @Test
+    public void UnknownVariableInBodyIsRejectedTest() {
+        String message = rejected("{\"steps\": [{\"name\": \"a\", \"request\": \"POST /cart\","
+                + " \"body\": {\"product_id\": \"${productId}\"}}]}");
+        assertTrue(message.contains("step a: body: Unknown variable ${productId}"), message);
+    }
+
+    @Test
+    public void VariableExtractedByLaterStepIsAcceptedTest() {
+        StepGraph graph = compile("{\"steps\": ["
+                + "{\"name\": \"product\", \"request\": \"GET /products/${productId}\"},"
+                + "{\"name\": \"catalog\", \"request\": \"GET /products\", \"extract\": {\"productId\": \"/0/id\"}}]}");
+        assertEquals(graph.allSteps().size(), 2);
+    }
+
+    @Test
+    public void ZeroTotalWeightIsRejectedTest() {
+        String message = rejected("{\"steps\": [{\"name\": \"a\", \"request\": \"GET /products\", \"weight\": 0},"
+                + " {\"name\": \"b\", \"request\": \"GET /cart\", \"weight\": 0}]}");
+        assertTrue(message.contains("at least one step must have a positive weight"), message);
+    }
+
+    @Test
+    public void ZeroTotalTransitionWeightIsRejectedTest() {
+        String message = rejected("{\"steps\": [{\"name\": \"a\", \"request\": \"GET /products\", \"next\": {\"a\": 0}}]}");
+        assertTrue(message.contains("step a: next must have a positive weight"), message);
+    }
+
+    @Test
+    public void RampUpNotShorterThanDurationIsRejectedTest() {
+        String message = rejected("{\"rampUpSeconds\": 10, \"durationSeconds\": 10,"
+                + " \"steps\": [{\"name\": \"a\", \"request\": \"GET /products\"}]}");
+        assertTrue(message.contains("rampUpSeconds must be less than durationSeconds"), message);
+    }
+
+    @Test
+    public void RunnerRejectsDurationNotLongerThanRampUpTest() {
+        StepGraph graph = compile("{\"rampUpSeconds\": 10, \"durationSeconds\": 60,"
+                + " \"steps\": [{\"name\": \"a\", \"request\": \"GET /products\"}]}");
+        assertThrows(IllegalArgumentException.class, () -> new ScenarioRunner(graph, "http://localhost", 1,
+                Duration.ofSeconds(4), Duration.ofSeconds(1), Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void ZeroWeightStepIsNeverEntryTest() {
+        StepGraph graph = compile("{\"steps\": [{\"name\": \"a\", \"request\": \"GET /products\", \"weight\": 3},"
+                + " {\"name\": \"b\", \"request\": \"GET /cart\", \"weight\": 0}]}");
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(graph.first(random).name, "a");
+        }
+    }
+
+    private static StepGraph compile(String scenario) {
+        try {
+            return ScenarioCompiler.compile(MAPPER.readTree(scenario), "test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String rejected(String scenario) {
+        return expectThrows(IllegalArgumentException.class, () -> compile(scenario)).getMessage();
+    }
+}
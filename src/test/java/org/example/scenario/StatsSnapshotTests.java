@@ -0,0 +1,156 @@
+package org.example.scenario;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты срезов статистики воркеров: двоичный формат {@link StatsSnapshot} и точность слияния
+ * срезов координатором по сравнению с одной гистограммой всех значений.
+ */
+public class StatsSnapshotTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void SnapshotRoundTripsThroughWireFormatTest() throws IOException {
+        List<Step> steps = steps(3);
+        StepStats stats = new StepStats(steps);
+        stats.record(steps.get(0), 200, TimeUnit.MILLISECONDS.toNanos(5), false);
+        stats.record(steps.get(0), 500, TimeUnit.MILLISECONDS.toNanos(250), true);
+        stats.record(steps.get(2), 0, TimeUnit.SECONDS.toNanos(2), true);
+        StatsSnapshot snapshot = stats.drain();
+
+        StatsSnapshot decoded = roundTrip(snapshot);
+
+        assertEquals(decoded.stepCount(), 3);
+        assertEquals(decoded.latencies(0), snapshot.latencies(0));
+        assertNull(decoded.latencies(1), "Step without requests should not be transferred");
+        assertEquals(decoded.latencies(2), snapshot.latencies(2));
+        assertEquals(decoded.errors(0), 1);
+        assertEquals(decoded.errors(1), 0);
+        assertEquals(decoded.errors(2), 1);
+        assertEquals(decoded.statuses(), Map.of(200, 1L, 500, 1L, 0, 1L));
+    }
+
+    @Test
+    public void DrainReturnsOnlyValuesSincePreviousDrainTest() throws IOException {
+        List<Step> steps = steps(1);
+        StepStats stats = new StepStats(steps);
+        stats.record(steps.get(0), 200, TimeUnit.MILLISECONDS.toNanos(5), true);
+        stats.drain();
+        stats.record(steps.get(0), 200, TimeUnit.MILLISECONDS.toNanos(7), false);
+
+        StatsSnapshot second = stats.drain();
+
+        assertEquals(second.latencies(0).getTotalCount(), 1);
+        assertEquals(second.errors(0), 0);
+        assertEquals(second.statuses(), Map.of(200, 1L));
+    }
+
+    @Test
+    public void MergedWorkersMatchSingleHistogramOfAllValuesTest() throws IOException {
+        List<Step> steps = steps(1);
+        Step step = steps.get(0);
+        Histogram reference = new Histogram(StepStats.HIGHEST_TRACKABLE_MICROS, StepStats.SIGNIFICANT_DIGITS);
+        Random random = new Random(42);
+
+        // Быстрый воркер без хвоста и медленный воркер с тяжелым хвостом и меньшим числом запросов
+        StepStats fast = new StepStats(steps);
+        for (int i = 0; i < 90_000; i++) {
+            record(fast, step, 1_000 + random.nextInt(2_000), reference);
+        }
+        StepStats slow = new StepStats(steps);
+        for (int i = 0; i < 10_000; i++) {
+            record(slow, step, random.nextInt(100) == 0 ? 2_000_000 + random.nextInt(1_000_000)
+                    : 5_000 + random.nextInt(20_000), reference);
+        }
+
+        StatsSnapshot fastSnapshot = fast.drain();
+        StatsSnapshot slowSnapshot = slow.drain();
+        StepStats coordinator = new StepStats(steps);
+        // Порядок прихода срезов от воркеров не важен
+        coordinator.add(roundTrip(slowSnapshot));
+        coordinator.add(roundTrip(fastSnapshot));
+        Histogram merged = coordinator.latencies(step);
+
+        assertEquals(merged.getTotalCount(), reference.getTotalCount());
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            assertEquals(merged.getValueAtPercentile(percentile), reference.getValueAtPercentile(percentile),
+                    "p" + percentile);
+        }
+        assertEquals(merged.getMaxValue(), reference.getMaxValue());
+        assertEquals(merged, reference);
+
+        // Среднее перцентилей воркеров дало бы другой p99: быстрый воркер не видит хвоста медленного
+        long averagedP99 = (fastSnapshot.latencies(0).getValueAtPercentile(99)
+                + slowSnapshot.latencies(0).getValueAtPercentile(99)) / 2;
+        assertNotEquals(averagedP99, merged.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void SnapshotWithMismatchedStepCountIsRejectedTest() throws IOException {
+        List<Step> workerSteps = steps(2);
+        StepStats worker = new StepStats(workerSteps);
+        worker.record(workerSteps.get(1), 200, TimeUnit.MILLISECONDS.toNanos(5), false);
+        StatsSnapshot snapshot = roundTrip(worker.drain());
+
+        StepStats coordinator = new StepStats(steps(3));
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> coordinator.add(snapshot));
+        assertTrue(e.getMessage().contains("Snapshot has 2 steps, expected 3"), e.getMessage());
+        assertEquals(coordinator.totalRequests(), 0);
+    }
+
+    @Test
+    public void CorruptedSnapshotIsRejectedTest() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(2);
+            out.writeInt(1);
+            out.writeInt(5);
+        } catch (IOException e) {
+            fail("Writing to memory should not fail", e);
+        }
+        assertThrows(IOException.class, () -> StatsSnapshot.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    private static void record(StepStats stats, Step step, long micros, Histogram reference) {
+        stats.record(step, 200, TimeUnit.MICROSECONDS.toNanos(micros), false);
+        reference.recordValue(micros);
+    }
+
+    private static StatsSnapshot roundTrip(StatsSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            snapshot.writeTo(out);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        StatsSnapshot decoded = StatsSnapshot.readFrom(in);
+        assertEquals(in.read(), -1, "Snapshot should be read to the end");
+        return decoded;
+    }
+
+    /**
+     * Шаги сценария из {@code count} запросов GET.
+     */
+    private static List<Step> steps(int count) throws IOException {
+        StringBuilder scenario = new StringBuilder("{\"steps\": [");
+        for (int i = 0; i < count; i++) {
+            scenario.append(i == 0 ? "" : ",").append("{\"name\": \"s").append(i).append("\", \"request\": \"GET /products\"}");
+        }
+        return ScenarioCompiler.compile(MAPPER.readTree(scenario.append("]}").toString()), "test").allSteps();
+    }
+}
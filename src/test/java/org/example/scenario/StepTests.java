@@ -0,0 +1,59 @@
+package org.example.scenario;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты взвешенного выбора следующего шага {@link Step#pick}.
+ */
+public class StepTests {
+
+    /** Шаги 0, 2 и 3 с весами 1, 3 и 1. */
+    private static final int[] TARGETS = {0, 2, 3};
+    private static final int[] CUMULATIVE_WEIGHTS = {1, 4, 5};
+
+    @Test
+    public void PickMapsEveryPointToItsWeightRangeTest() {
+        int[] expected = {0, 2, 2, 2, 3};
+        for (int point = 0; point < expected.length; point++) {
+            assertEquals(Step.pick(TARGETS, CUMULATIVE_WEIGHTS, fixed(point)), expected[point], "point " + point);
+        }
+    }
+
+    @Test
+    public void PickFrequenciesFollowWeightsTest() {
+        Random random = new Random(42);
+        int[] counts = new int[4];
+        int picks = 100_000;
+        for (int i = 0; i < picks; i++) {
+            counts[Step.pick(TARGETS, CUMULATIVE_WEIGHTS, random)]++;
+        }
+        assertEquals(counts[1], 0);
+        assertEquals(counts[0] / (double) picks, 0.2, 0.01);
+        assertEquals(counts[2] / (double) picks, 0.6, 0.01);
+        assertEquals(counts[3] / (double) picks, 0.2, 0.01);
+    }
+
+    @Test
+    public void PickWithSingleTargetAlwaysReturnsItTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Step.pick(new int[]{5}, new int[]{7}, random), 5);
+        }
+    }
+
+    /**
+     * {@link Random}, всегда возвращающий заданную точку в диапазоне накопленных весов.
+     */
+    private static Random fixed(int point) {
+        return new Random() {
+            @Override
+            public int nextInt(int bound) {
+                return point;
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.scenario;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Тесты подстановки переменных в путь и JSON тело запроса.
+ */
+public class TemplateTests {
+
+    private final Variables variables = new Variables();
+    private final int productId = variables.declare("productId");
+
+    @Test
+    public void WholeValueNumberIsInsertedUnquotedTest() {
+        Template body = Template.compile("{\"product_id\":\"${productId}\",\"quantity\":1}", variables, true);
+        assertEquals(body.render(values("42")), "{\"product_id\":42,\"quantity\":1}");
+        assertEquals(body.render(values("-1.5e3")), "{\"product_id\":-1.5e3,\"quantity\":1}");
+    }
+
+    @Test
+    public void WholeValueStringIsInsertedQuotedAndEscapedTest() {
+        Template body = Template.compile("{\"product_id\":\"${productId}\"}", variables, true);
+        assertEquals(body.render(values("abc")), "{\"product_id\":\"abc\"}");
+        assertEquals(body.render(values("12abc")), "{\"product_id\":\"12abc\"}");
+        assertEquals(body.render(values("a\"b")), "{\"product_id\":\"a\\\"b\"}");
+    }
+
+    @Test
+    public void ValueInsideStringIsEscapedTest() {
+        Template body = Template.compile("{\"username\":\"load-${user}\"}", variables, true);
+        String[] values = values(null);
+        values[Variables.USER] = "a\"b\\c\nd\u0001";
+        assertEquals(body.render(values), "{\"username\":\"load-a\\\"b\\\\c\\nd\\u0001\"}");
+    }
+
+    @Test
+    public void PathIsRenderedWithoutEscapingTest() {
+        Template path = Template.compile("/products/${productId}", variables, false);
+        assertEquals(path.render(values("42")), "/products/42");
+    }
+
+    @Test
+    public void MissingValueRendersNullTest() {
+        Template path = Template.compile("/products/${productId}", variables, false);
+        assertNull(path.render(values(null)));
+    }
+
+    @Test
+    public void UnclosedPlaceholderIsRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> Template.compile("/products/${productId", variables, false));
+    }
+
+    private String[] values(String productIdValue) {
+        String[] values = new String[variables.size()];
+        values[productId] = productIdValue;
+        return values;
+    }
+}
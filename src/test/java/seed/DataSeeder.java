@@ -0,0 +1,263 @@
+package seed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.response.Response;
+import model.AddToCartRequest;
+import model.NewProduct;
+import model.Product;
+import model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Массовое наполнение API продуктами и корзинами для проверок на объемах, близких к production.
+ * Входные данные генерируются из {@link Random} с фиксированным seed, поэтому набор воспроизводим.
+ * Запросы отправляются асинхронно с ограничением числа одновременно выполняющихся запросов ({@code concurrency}).
+ * Все созданные продукты и позиции корзин запоминаются и удаляются в {@link #cleanup()}; не удаленные при очистке
+ * остаются в списках, и очистку можно повторить.
+ */
+public class DataSeeder {
+
+    /**
+     * Асинхронная отправка запроса с проверкой статусного кода, например {@code BaseTest::performRequestAndVerifyAsync}.
+     */
+    @FunctionalInterface
+    public interface Requester {
+        CompletableFuture<Response> send(String method, String path, Object body, String accessToken, int expectedStatusCode);
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader PRODUCT_READER = MAPPER.readerFor(Product.class);
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Home", "Books", "Sports", "Toys", "Food", "Beauty"};
+
+    private final Requester requester;
+    private final Semaphore inFlight;
+    private final int concurrency;
+    private final Random random;
+    private final String runTag;
+
+    private final User owner;
+    private String ownerToken;
+    private final Set<Integer> productIds = ConcurrentHashMap.newKeySet();
+    // Токен владельца корзины -> идентификаторы добавленных в нее продуктов
+    private final Map<String, Set<Integer>> cartLines = new ConcurrentHashMap<>();
+
+    /**
+     * @param requester Способ отправки запросов.
+     * @param concurrency Максимальное число одновременно выполняющихся запросов (или цепочек запросов одной корзины).
+     * @param seed Seed генератора входных данных.
+     */
+    public DataSeeder(Requester requester, int concurrency, long seed) {
+        this.requester = requester;
+        this.concurrency = concurrency;
+        this.inFlight = new Semaphore(concurrency);
+        this.random = new Random(seed);
+        this.runTag = "seed" + seed + "x" + Long.toString(System.currentTimeMillis(), 36);
+        this.owner = new User(runTag + "owner", "password");
+    }
+
+    /**
+     * Создает {@code count} продуктов от имени служебного пользователя.
+     */
+    public Result seedProducts(int count) {
+        ensureOwner();
+        List<Supplier<CompletableFuture<?>>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            NewProduct product = new NewProduct(runTag + "-product-" + i, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    1 + random.nextInt(100_000) / 100.0, random.nextInt(51));
+            tasks.add(() -> requester.send("POST", "/products", product, ownerToken, 201).thenAccept(response -> {
+                JsonNode created = readTree(response);
+                JsonNode id = created.has("product_id") ? created.get("product_id") : created.path("id");
+                if (id.canConvertToInt()) {
+                    productIds.add(id.asInt());
+                }
+            }));
+        }
+        Result result = runAll("products", tasks);
+        if (productIds.size() < result.succeeded) {
+            // Сервер не вернул идентификаторы созданных продуктов — находим их в каталоге по имени
+            resolveProductIdsFromCatalog();
+        }
+        return result;
+    }
+
+    /**
+     * Создает {@code count} корзин: для каждой регистрирует пользователя и добавляет {@code linesPerCart}
+     * случайных продуктов из созданных ранее.
+     */
+    public Result seedCarts(int count, int linesPerCart) {
+        List<Integer> ids = new ArrayList<>(productIds);
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Seed products before carts");
+        }
+        List<Supplier<CompletableFuture<?>>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User(runTag + "cart" + i, "password");
+            List<AddToCartRequest> lines = new ArrayList<>(linesPerCart);
+            for (int line = 0; line < linesPerCart; line++) {
+                lines.add(new AddToCartRequest(ids.get(random.nextInt(ids.size())), 1 + random.nextInt(5)));
+            }
+            tasks.add(() -> requester.send("POST", "/register", user, null, 201)
+                    .thenCompose(registered -> requester.send("POST", "/login", user, null, 200))
+                    .thenCompose(login -> addLines(readTree(login).path("access_token").asText(), lines, 0)));
+        }
+        return runAll("cart lines", tasks, linesPerCart);
+    }
+
+    private CompletableFuture<Void> addLines(String token, List<AddToCartRequest> lines, int index) {
+        if (index == lines.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        AddToCartRequest line = lines.get(index);
+        return requester.send("POST", "/cart", line, token, 201).thenCompose(response -> {
+            cartLines.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(line.getProductId());
+            return addLines(token, lines, index + 1);
+        });
+    }
+
+    /**
+     * Удаляет все созданные позиции корзин через {@code DELETE /cart/{id}}, а затем все продукты
+     * через {@code DELETE /products/{id}}. Продукты удаляются только после завершения всех удалений позиций,
+     * чтобы позиция не ссылалась на уже удаленный продукт. Из списков убираются только удаленные записи.
+     *
+     * @return Итоги удаления позиций и продуктов.
+     */
+    public List<Result> cleanup() {
+        List<Supplier<CompletableFuture<?>>> lineTasks = new ArrayList<>();
+        cartLines.forEach((token, lines) -> {
+            for (Integer productId : lines) {
+                lineTasks.add(() -> requester.send("DELETE", "/cart/" + productId, null, token, 200)
+                        .thenRun(() -> lines.remove(productId)));
+            }
+        });
+        Result deletedLines = runAll("cart lines deleted", lineTasks);
+        cartLines.values().removeIf(Set::isEmpty);
+
+        List<Supplier<CompletableFuture<?>>> productTasks = new ArrayList<>();
+        for (Integer productId : productIds) {
+            productTasks.add(() -> requester.send("DELETE", "/products/" + productId, null, ownerToken, 200)
+                    .thenRun(() -> productIds.remove(productId)));
+        }
+        Result deletedProducts = runAll("products deleted", productTasks);
+        return List.of(deletedLines, deletedProducts);
+    }
+
+    public int getProductCount() {
+        return productIds.size();
+    }
+
+    private void ensureOwner() {
+        if (ownerToken == null) {
+            requester.send("POST", "/register", owner, null, 201).join();
+            ownerToken = readTree(requester.send("POST", "/login", owner, null, 200).join()).path("access_token").asText();
+        }
+    }
+
+    /**
+     * Разбирает тело ответа Jackson'ом: для массовых операций это заметно дешевле GPath в {@code response.path(...)}.
+     */
+    private static JsonNode readTree(Response response) {
+        try {
+            return MAPPER.readTree(response.asByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void resolveProductIdsFromCatalog() {
+        Response catalog = requester.send("GET", "/products", null, null, 200).join();
+        productIds.clear();
+        try (MappingIterator<Product> products = PRODUCT_READER.readValues(catalog.asInputStream())) {
+            while (products.hasNext()) {
+                Product product = products.next();
+                if (product.getName() != null && product.getName().startsWith(runTag + "-product-")) {
+                    productIds.add(product.getId());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Result runAll(String unit, List<Supplier<CompletableFuture<?>>> tasks) {
+        return runAll(unit, tasks, 1);
+    }
+
+    /**
+     * Запускает задачи, держа в полете не больше {@code concurrency} из них, и ждет завершения всех.
+     *
+     * @param itemsPerTask Сколько единиц данных создает одна успешная задача — для расчета скорости.
+     */
+    private Result runAll(String unit, List<Supplier<CompletableFuture<?>>> tasks, int itemsPerTask) {
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long started = System.nanoTime();
+        for (Supplier<CompletableFuture<?>> task : tasks) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<?> future;
+            try {
+                future = task.get();
+            } catch (RuntimeException e) {
+                inFlight.release();
+                failed.increment();
+                continue;
+            }
+            future.whenComplete((ignored, error) -> {
+                (error == null ? succeeded : failed).increment();
+                inFlight.release();
+            });
+        }
+        inFlight.acquireUninterruptibly(concurrency);
+        inFlight.release(concurrency);
+        return new Result(unit, succeeded.sum() * itemsPerTask, failed.sum(), System.nanoTime() - started);
+    }
+
+    /**
+     * Итог одной фазы наполнения или очистки.
+     */
+    public static class Result {
+        private final String unit;
+        private final long succeeded;
+        private final long failed;
+        private final long elapsedNanos;
+
+        Result(String unit, long succeeded, long failed, long elapsedNanos) {
+            this.unit = unit;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getSucceeded() {
+            return succeeded;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public double getItemsPerSecond() {
+            return succeeded / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d %s in %.2f s (%.1f/s), %d failed",
+                    succeeded, unit, elapsedNanos / 1e9, getItemsPerSecond(), failed);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package sla;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Бюджет задержки эндпоинта, например {@code @LatencyBudget(endpoint = "GET /products", percentile = 99, millis = 200)}.
+ * Ставится на тестовый метод или класс тестов; бюджет действует на все вызовы эндпоинта за прогон набора,
+ * а не только на вызовы из помеченного теста. Проверяется {@link SlaMonitor} в конце набора.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Repeatable(LatencyBudgets.class)
+public @interface LatencyBudget {
+
+    /**
+     * Метод и шаблон пути эндпоинта: {@code "GET /products/{id}"}.
+     */
+    String endpoint();
+
+    /**
+     * Перцентиль, к которому относится бюджет. По умолчанию p99.
+     */
+    double percentile() default 99;
+
+    /**
+     * Максимально допустимая задержка на этом перцентиле в миллисекундах.
+     */
+    long millis();
+}
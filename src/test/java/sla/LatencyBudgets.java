@@ -0,0 +1,15 @@
+package sla;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Контейнер для нескольких {@link LatencyBudget} на одном методе или классе.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface LatencyBudgets {
+    LatencyBudget[] value();
+}
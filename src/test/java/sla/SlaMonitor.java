@@ -0,0 +1,176 @@
+package sla;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import load.LatencyStats;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сбор задержек запросов за прогон набора тестов и проверка их по бюджетам эндпоинтов.
+ * Бюджеты задаются аннотацией {@link LatencyBudget} и/или JSON файлом вида
+ * <pre>{@code {"GET /products": {"p99": 200, "p50": 50}, "GET /cart": {"p99": 150}}}</pre>
+ * Если на один перцентиль эндпоинта задано несколько бюджетов, действует самый строгий.
+ */
+public class SlaMonitor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LatencyStats stats = new LatencyStats();
+    // Эндпоинт -> перцентиль -> бюджет в миллисекундах
+    private final Map<String, Map<Double, Long>> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Создает монитор с бюджетами из файла {@code -Dsla.config}, если он задан.
+     */
+    public static SlaMonitor fromSystemProperties() {
+        SlaMonitor monitor = new SlaMonitor();
+        String config = System.getProperty("sla.config");
+        if (config != null) {
+            monitor.loadConfig(Path.of(config));
+        }
+        return monitor;
+    }
+
+    /**
+     * Загружает бюджеты из JSON файла. Ключи перцентилей имеют вид {@code "p99"} или {@code "p99.9"}.
+     *
+     * @throws UncheckedIOException если файл не удалось прочитать.
+     * @throws IllegalArgumentException если ключ перцентиля задан в неверном формате.
+     */
+    public void loadConfig(Path file) {
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(file.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read SLA config " + file, e);
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> endpoints = root.fields(); endpoints.hasNext(); ) {
+            Map.Entry<String, JsonNode> endpoint = endpoints.next();
+            for (Iterator<Map.Entry<String, JsonNode>> limits = endpoint.getValue().fields(); limits.hasNext(); ) {
+                Map.Entry<String, JsonNode> limit = limits.next();
+                if (!limit.getKey().startsWith("p")) {
+                    throw new IllegalArgumentException("Percentile key should look like p99: " + limit.getKey());
+                }
+                addBudget(endpoint.getKey(), Double.parseDouble(limit.getKey().substring(1)), limit.getValue().asLong());
+            }
+        }
+    }
+
+    public void addBudgets(LatencyBudget... latencyBudgets) {
+        for (LatencyBudget budget : latencyBudgets) {
+            addBudget(budget.endpoint(), budget.percentile(), budget.millis());
+        }
+    }
+
+    public void addBudget(String endpoint, double percentile, long millis) {
+        budgets.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>()).merge(percentile, millis, Math::min);
+    }
+
+    /**
+     * Записывает задержку одного запроса; конкретный путь приводится к шаблону эндпоинта.
+     */
+    public void record(String method, String path, long elapsedNanos) {
+        stats.record(method, LatencyStats.endpointOf(path), elapsedNanos, false);
+    }
+
+    /**
+     * Сравнивает наблюдаемые задержки с бюджетами.
+     */
+    public Summary evaluate() {
+        Map<String, Histogram> histograms = stats.endpointHistograms();
+        Map<String, Object> endpoints = new TreeMap<>();
+        List<String> breaches = new ArrayList<>();
+
+        Map<String, Map<Double, Long>> allEndpoints = new TreeMap<>(budgets);
+        histograms.keySet().forEach(endpoint -> allEndpoints.putIfAbsent(endpoint, Map.of()));
+        allEndpoints.forEach((endpoint, limits) -> {
+            Histogram histogram = histograms.get(endpoint);
+            long count = histogram == null ? 0 : histogram.getTotalCount();
+            Map<String, Object> observed = new LinkedHashMap<>();
+            observed.put("count", count);
+            if (count > 0) {
+                observed.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+                observed.put("p90Millis", millis(histogram.getValueAtPercentile(90)));
+                observed.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+                observed.put("maxMillis", millis(histogram.getMaxValue()));
+            }
+            List<Map<String, Object>> checks = new ArrayList<>();
+            new TreeMap<>(limits).forEach((percentile, limitMillis) -> {
+                Map<String, Object> check = new LinkedHashMap<>();
+                check.put("percentile", percentile);
+                check.put("budgetMillis", limitMillis);
+                // Эндпоинт без вызовов бюджет не нарушает: в отчете у него count = 0
+                boolean passed = true;
+                if (count > 0) {
+                    double observedMillis = millis(histogram.getValueAtPercentile(percentile));
+                    passed = observedMillis <= limitMillis;
+                    check.put("observedMillis", observedMillis);
+                    if (!passed) {
+                        breaches.add(String.format("%s p%s = %.2f ms > %d ms", endpoint, percentile, observedMillis, limitMillis));
+                    }
+                }
+                check.put("passed", passed);
+                checks.add(check);
+            });
+            observed.put("budgets", checks);
+            endpoints.put(endpoint, observed);
+        });
+        return new Summary(endpoints, breaches);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Результат проверки бюджетов.
+     */
+    public static class Summary {
+        private final Map<String, Object> endpoints;
+        private final List<String> breaches;
+
+        Summary(Map<String, Object> endpoints, List<String> breaches) {
+            this.endpoints = endpoints;
+            this.breaches = breaches;
+        }
+
+        /**
+         * @return Описания нарушенных бюджетов; пустой список, если все бюджеты соблюдены.
+         */
+        public List<String> getBreaches() {
+            return breaches;
+        }
+
+        /**
+         * Записывает сводку в JSON: наблюдаемые перцентили по каждому эндпоинту и результат проверки каждого бюджета.
+         *
+         * @throws UncheckedIOException если файл не удалось записать.
+         */
+        public void writeJson(Path file) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("passed", breaches.isEmpty());
+            json.put("breaches", breaches);
+            json.put("endpoints", endpoints);
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), json);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write SLA summary " + file, e);
+            }
+        }
+    }
+}
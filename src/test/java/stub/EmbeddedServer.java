@@ -0,0 +1,16 @@
+package stub;
+
+/**
+ * Локальный HTTP сервер, поднимаемый вместо удаленного сервиса на время прогона тестов.
+ */
+public interface EmbeddedServer {
+
+    void start();
+
+    void stop();
+
+    /**
+     * @return Базовый URI запущенного сервера, например {@code http://127.0.0.1:53412}.
+     */
+    String baseUri();
+}
@@ -0,0 +1,413 @@
+package stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Встроенная in-memory реализация API магазина для локального запуска тестов.
+ * Повторяет контракт, который проверяют API тесты: регистрация и логин пользователя,
+ * CRUD продуктов и корзина, включая ответы 401, 404 и 405.
+ * Сервер поднимается на loopback-интерфейсе на свободном порту и стартует за миллисекунды.
+ * <p>
+ * Ответы {@code GET /products} и {@code GET /products/{id}} несут {@code ETag} и {@code Last-Modified} версии каталога
+ * и возвращают 304 на {@code If-None-Match} / {@code If-Modified-Since} с актуальной версией.
+ */
+public class ShopApiStub implements EmbeddedServer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Время жизни выдаваемого токена доступа в секундах. */
+    private static final long TOKEN_TTL_SECONDS = 3600;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Map<String, String> users = new ConcurrentHashMap<>();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<String, Object>> products = new ConcurrentSkipListMap<>();
+    // Все когда-либо существовавшие продукты: корзина хранит позиции и после удаления продукта из каталога
+    private final Map<Integer, Map<String, Object>> knownProducts = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, Integer>> carts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextProductId = new AtomicInteger(1);
+    // Версия каталога для ETag: меняется при каждом изменении любого продукта
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile Instant catalogModified = Instant.now();
+
+    /**
+     * Создает сервер на свободном порту loopback-интерфейса и заполняет каталог стартовыми продуктами.
+     *
+     * @throws IOException если не удалось открыть серверный сокет.
+     */
+    public ShopApiStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+
+        addProduct("Smartphone", "Electronics", 499.99, 10);
+        addProduct("Laptop", "Electronics", 1299.99, 15);
+        addProduct("T-shirt", "Clothing", 19.99, 0);
+        addProduct("Coffee Maker", "Home", 89.5, 5);
+    }
+
+    @Override
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String baseUri() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    private int addProduct(String name, String category, double price, double discount) {
+        int id = nextProductId.getAndIncrement();
+        Map<String, Object> product = product(id, name, category, price, discount);
+        products.put(id, product);
+        knownProducts.put(id, product);
+        catalogChanged();
+        return id;
+    }
+
+    private void catalogChanged() {
+        catalogModified = Instant.now();
+        catalogVersion.incrementAndGet();
+    }
+
+    private static Map<String, Object> product(int id, String name, String category, double price, double discount) {
+        Map<String, Object> product = new LinkedHashMap<>();
+        product.put("id", id);
+        product.put("name", name);
+        product.put("category", category);
+        product.put("price", price);
+        product.put("discount", discount);
+        return product;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (JsonProcessingException | RuntimeException e) {
+                send(exchange, 400, message("Bad request: " + e.getMessage()));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] segments = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+        String resource = segments[0];
+        Integer id = null;
+        if (segments.length == 2) {
+            try {
+                id = Integer.valueOf(segments[1]);
+            } catch (NumberFormatException e) {
+                send(exchange, 404, message("Not found"));
+                return;
+            }
+        } else if (segments.length > 2) {
+            send(exchange, 404, message("Not found"));
+            return;
+        }
+
+        switch (resource) {
+            case "register" -> {
+                if (id != null) send(exchange, 404, message("Not found"));
+                else if (!method.equals("POST")) send(exchange, 405, message("Method not allowed"));
+                else register(exchange);
+            }
+            case "login" -> {
+                if (id != null) send(exchange, 404, message("Not found"));
+                else if (!method.equals("POST")) send(exchange, 405, message("Method not allowed"));
+                else login(exchange);
+            }
+            case "products" -> {
+                if (id == null) productsCollection(exchange, method);
+                else productItem(exchange, method, id);
+            }
+            case "cart" -> {
+                if (id == null) cartCollection(exchange, method);
+                else cartItem(exchange, method, id);
+            }
+            default -> send(exchange, 404, message("Not found"));
+        }
+    }
+
+    private void register(HttpExchange exchange) throws IOException {
+        JsonNode body = readBody(exchange);
+        String username = text(body, "username");
+        String password = text(body, "password");
+        if (username.isEmpty() || password.isEmpty()) {
+            send(exchange, 400, message("Username and password are required"));
+        } else if (users.putIfAbsent(username, password) != null) {
+            send(exchange, 400, message("User already exists"));
+        } else {
+            send(exchange, 201, message("User registered successfully"));
+        }
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        JsonNode body = readBody(exchange);
+        String username = text(body, "username");
+        String password = text(body, "password");
+        if (!password.equals(users.get(username))) {
+            send(exchange, 401, message("Invalid credentials"));
+            return;
+        }
+        String token = issueToken(username);
+        tokens.put(token, username);
+        send(exchange, 200, Map.of("access_token", token));
+    }
+
+    /**
+     * Выдает токен в формате JWT (header.payload.signature) с claim'ами {@code sub} и {@code exp}.
+     * Подпись не проверяется — токен лишь непрозрачный ключ в таблице сессий.
+     */
+    private static String issueToken(String username) throws IOException {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        long exp = Instant.now().getEpochSecond() + TOKEN_TTL_SECONDS;
+        String header = encoder.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(MAPPER.writeValueAsBytes(
+                Map.of("sub", username, "exp", exp, "jti", UUID.randomUUID().toString())));
+        return header + "." + payload + ".stub";
+    }
+
+    private void productsCollection(HttpExchange exchange, String method) throws IOException {
+        switch (method) {
+            case "GET" -> {
+                // Версия читается до снимка каталога: при гонке клиент получит более новое тело со старым ETag
+                // и просто перекачает его при следующей проверке, но не наоборот
+                long version = catalogVersion.get();
+                Instant modified = catalogModified;
+                if (!notModified(exchange, version, modified)) {
+                    sendCacheable(exchange, version, modified, new ArrayList<>(products.values()));
+                }
+            }
+            case "POST" -> {
+                if (authenticatedUser(exchange) == null) {
+                    send(exchange, 405, message("Method not allowed"));
+                    return;
+                }
+                JsonNode body = readBody(exchange);
+                int id = addProduct(body.path("name").asText(), body.path("category").asText(),
+                        body.path("price").asDouble(), body.path("discount").asDouble());
+                Map<String, Object> response = new LinkedHashMap<>(message("Product added successfully"));
+                response.put("product_id", id);
+                send(exchange, 201, response);
+            }
+            default -> send(exchange, 405, message("Method not allowed"));
+        }
+    }
+
+    private void productItem(HttpExchange exchange, String method, int id) throws IOException {
+        if (method.equals("GET")) {
+            long version = catalogVersion.get();
+            Instant modified = catalogModified;
+            Map<String, Object> product = products.get(id);
+            if (product == null) send(exchange, 404, message("Product not found"));
+            else if (!notModified(exchange, version, modified)) sendCacheable(exchange, version, modified, List.of(product));
+            return;
+        }
+        if (!method.equals("PUT") && !method.equals("DELETE")) {
+            send(exchange, 405, message("Method not allowed"));
+            return;
+        }
+        if (authenticatedUser(exchange) == null) {
+            send(exchange, 405, message("Method not allowed"));
+            return;
+        }
+        if (!products.containsKey(id)) {
+            send(exchange, 404, message("Product not found"));
+            return;
+        }
+        if (method.equals("PUT")) {
+            JsonNode body = readBody(exchange);
+            Map<String, Object> updated = product(id, body.path("name").asText(), body.path("category").asText(),
+                    body.path("price").asDouble(), body.path("discount").asDouble());
+            products.put(id, updated);
+            knownProducts.put(id, updated);
+            catalogChanged();
+            send(exchange, 200, message("Product updated successfully"));
+        } else {
+            products.remove(id);
+            catalogChanged();
+            send(exchange, 200, message("Product deleted successfully"));
+        }
+    }
+
+    private void cartCollection(HttpExchange exchange, String method) throws IOException {
+        if (!method.equals("GET") && !method.equals("POST")) {
+            send(exchange, 405, message("Method not allowed"));
+            return;
+        }
+        String username = authenticatedUser(exchange);
+        if (username == null) {
+            send(exchange, 401, message("Unauthorized"));
+            return;
+        }
+        Map<Integer, Integer> cart = carts.computeIfAbsent(username, u -> new ConcurrentSkipListMap<>());
+        if (method.equals("GET")) {
+            send(exchange, 200, cartView(cart));
+            return;
+        }
+        JsonNode body = readBody(exchange);
+        int productId = body.path("product_id").asInt();
+        int quantity = body.path("quantity").asInt();
+        if (quantity <= 0) {
+            send(exchange, 400, message("Quantity must be positive"));
+        } else if (!knownProducts.containsKey(productId)) {
+            send(exchange, 404, message("Product not found"));
+        } else {
+            cart.merge(productId, quantity, Integer::sum);
+            send(exchange, 201, message("Product added to cart successfully"));
+        }
+    }
+
+    private void cartItem(HttpExchange exchange, String method, int productId) throws IOException {
+        if (!method.equals("DELETE")) {
+            send(exchange, 405, message("Method not allowed"));
+            return;
+        }
+        String username = authenticatedUser(exchange);
+        if (username == null) {
+            send(exchange, 401, message("Unauthorized"));
+            return;
+        }
+        Map<Integer, Integer> cart = carts.get(username);
+        if (cart == null || cart.remove(productId) == null) {
+            send(exchange, 404, message("Product not found in cart"));
+        } else {
+            send(exchange, 200, message("Product removed from cart successfully"));
+        }
+    }
+
+    private Map<String, Object> cartView(Map<Integer, Integer> cart) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        double totalPrice = 0;
+        double totalDiscount = 0;
+        for (Map.Entry<Integer, Integer> line : cart.entrySet()) {
+            Map<String, Object> item = new LinkedHashMap<>(knownProducts.get(line.getKey()));
+            int quantity = line.getValue();
+            item.put("quantity", quantity);
+            items.add(item);
+            double price = (double) item.get("price");
+            double discount = (double) item.get("discount");
+            totalPrice += price * quantity;
+            totalDiscount += price * discount / 100 * quantity;
+        }
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("cart", items);
+        view.put("total_price", totalPrice);
+        view.put("total_discount", totalDiscount);
+        return view;
+    }
+
+    private String authenticatedUser(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        return tokens.get(authorization.substring("Bearer ".length()));
+    }
+
+    private static JsonNode readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            return bytes.length == 0 ? MAPPER.createObjectNode() : MAPPER.readTree(bytes);
+        }
+    }
+
+    /**
+     * @return Значение поля как строка или пустая строка, если поля нет, оно {@code null} или не скалярное.
+     */
+    private static String text(JsonNode body, String field) {
+        JsonNode value = body.path(field);
+        return value.isValueNode() && !value.isNull() ? value.asText() : "";
+    }
+
+    private static Map<String, Object> message(String text) {
+        return Map.of("message", text);
+    }
+
+    /**
+     * Отвечает 304, если клиент прислал актуальный {@code If-None-Match} или, без него, {@code If-Modified-Since}.
+     */
+    private static boolean notModified(HttpExchange exchange, long version, Instant modified) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        boolean notModified;
+        if (ifNoneMatch != null) {
+            notModified = ifNoneMatch.equals(etag(version));
+        } else if (ifModifiedSince != null) {
+            try {
+                notModified = !modified.truncatedTo(ChronoUnit.SECONDS)
+                        .isAfter(ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            } catch (DateTimeParseException e) {
+                notModified = false;
+            }
+        } else {
+            notModified = false;
+        }
+        if (notModified) {
+            exchange.getResponseHeaders().set("ETag", etag(version));
+            exchange.sendResponseHeaders(304, -1);
+        }
+        return notModified;
+    }
+
+    private static void sendCacheable(HttpExchange exchange, long version, Instant modified, Object body) throws IOException {
+        exchange.getResponseHeaders().set("ETag", etag(version));
+        exchange.getResponseHeaders().set("Last-Modified",
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(modified.atZone(ZoneOffset.UTC)));
+        send(exchange, 200, body);
+    }
+
+    private static String etag(long version) {
+        return "\"catalog-" + version + "\"";
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
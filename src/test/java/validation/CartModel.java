@@ -0,0 +1,244 @@
+package validation;
+
+import model.Product;
+import model.ShoppingCartResponse;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Клиентская модель ожидаемой корзины одного пользователя.
+ * Обновляется на каждую успешную мутацию ({@code POST /cart}, {@code DELETE /cart/{id}}) за O(1): ожидаемые итоги
+ * корректируются на вклад одной позиции, корзина заново не пересчитывается. Каждый ответ {@code GET /cart}
+ * сравнивается с моделью через {@link #verify} за O(число позиций): каждая позиция по id и количеству, затем итоги.
+ * Это ловит ошибки округления и гонки на сервере, в том числе чужой продукт или количество, перенесенное между
+ * позициями при совпадающих итогах, без квадратичных затрат на клиенте даже на тысячах мутаций.
+ * <p>
+ * Итоги считаются так же, как сервер: {@code total_price = sum(price * quantity)},
+ * {@code total_discount = sum(price * discount / 100 * quantity)}. Суммы ведутся с компенсацией ошибки округления
+ * (Neumaier), поэтому не накапливают погрешность при длинной серии добавлений и удалений.
+ */
+public class CartModel {
+
+    /** Допуск по умолчанию: один цент плюс относительная погрешность. */
+    public static final double DEFAULT_TOLERANCE = 0.01;
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+
+    private final double tolerance;
+    private final Map<Integer, Line> lines = new HashMap<>();
+    private final CompensatedSum totalPrice = new CompensatedSum();
+    private final CompensatedSum totalDiscount = new CompensatedSum();
+    private long quantity;
+    private boolean unknown;
+
+    public CartModel() {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param tolerance Допустимое абсолютное расхождение итогов с ответом сервера.
+     */
+    public CartModel(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Учитывает успешное добавление {@code quantity} единиц продукта. Повторное добавление увеличивает количество.
+     *
+     * @param price Цена продукта на момент добавления.
+     * @param discount Скидка продукта в процентах.
+     */
+    public synchronized void add(int productId, double price, double discount, int quantity) {
+        Line line = lines.computeIfAbsent(productId, id -> new Line(price, discount));
+        line.quantity += quantity;
+        this.quantity += quantity;
+        totalPrice.add(line.price * quantity);
+        totalDiscount.add(line.price * line.discount / 100 * quantity);
+    }
+
+    /**
+     * Учитывает успешное удаление позиции продукта целиком.
+     *
+     * @return {@code false}, если такой позиции в модели не было.
+     */
+    public synchronized boolean remove(int productId) {
+        Line line = lines.remove(productId);
+        if (line == null) {
+            return false;
+        }
+        quantity -= line.quantity;
+        totalPrice.add(-line.price * line.quantity);
+        totalDiscount.add(-line.price * line.discount / 100 * line.quantity);
+        return true;
+    }
+
+    /**
+     * Помечает модель как рассинхронизированную, например после мутации, завершившейся сетевой ошибкой,
+     * когда неизвестно, применил ли ее сервер. Следующий {@code verify} — любой из перегрузок — перестроит модель
+     * по ответу сервера вместо сравнения.
+     */
+    public synchronized void markUnknown() {
+        unknown = true;
+    }
+
+    /**
+     * @return {@code true}, если модель помечена через {@link #markUnknown()} и еще не перестроена по ответу сервера.
+     */
+    public synchronized boolean isUnknown() {
+        return unknown;
+    }
+
+    /**
+     * @return {@code true}, если по модели продукт лежит в корзине.
+     */
+    public synchronized boolean contains(int productId) {
+        return lines.containsKey(productId);
+    }
+
+    /**
+     * Сравнивает ответ {@code GET /cart}, прочитанный в {@link ProductTable}, с моделью.
+     *
+     * @return Описание расхождения или {@code null}, если корзина совпадает с моделью.
+     */
+    public synchronized String verify(ProductTable.Cart cart) {
+        ProductTable table = cart.getLines();
+        if (unknown) {
+            reset();
+            for (int i = 0; i < table.size(); i++) {
+                add(table.id(i), table.price(i), table.discount(i), table.quantity(i));
+            }
+            return null;
+        }
+        String mismatch = verifyLineCount(table.size());
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; mismatch == null && i < table.size(); i++) {
+            mismatch = verifyLine(table.id(i), table.quantity(i), seen);
+        }
+        return mismatch != null ? mismatch : verifyTotals(cart.getTotalPrice(), cart.getTotalDiscount());
+    }
+
+    /**
+     * Сравнивает ответ {@code GET /cart}, разобранный в {@link ShoppingCartResponse}, с моделью.
+     *
+     * @return Описание расхождения или {@code null}, если корзина совпадает с моделью.
+     */
+    public synchronized String verify(ShoppingCartResponse cart) {
+        if (unknown) {
+            reset();
+            if (cart.getCart() != null) {
+                for (Product line : cart.getCart()) {
+                    add(line.getId(), line.getPrice(), line.getDiscount(), line.getQuantity());
+                }
+            }
+            return null;
+        }
+        List<Product> actual = cart.getCart() == null ? List.of() : cart.getCart();
+        String mismatch = verifyLineCount(actual.size());
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; mismatch == null && i < actual.size(); i++) {
+            mismatch = verifyLine(actual.get(i).getId(), actual.get(i).getQuantity(), seen);
+        }
+        return mismatch != null ? mismatch : verifyTotals(cart.getTotalPrice(), cart.getTotalDiscount());
+    }
+
+    private String verifyLineCount(int actualLines) {
+        return actualLines == lines.size() ? null
+                : String.format("Cart has %d lines, expected %d lines with %d items", actualLines, lines.size(), quantity);
+    }
+
+    /**
+     * Сверяет позицию ответа с моделью. При совпадающем числе позиций каждая позиция модели встречается в ответе
+     * ровно один раз, только если ни одна позиция ответа не лишняя и не повторяется.
+     */
+    private String verifyLine(int productId, int actualQuantity, Set<Integer> seen) {
+        Line line = lines.get(productId);
+        if (line == null) {
+            return "Cart has unexpected product " + productId;
+        }
+        if (!seen.add(productId)) {
+            return "Cart has product " + productId + " in more than one line";
+        }
+        if (actualQuantity != line.quantity) {
+            return String.format("Product %d has quantity %d, expected %d", productId, actualQuantity, line.quantity);
+        }
+        return null;
+    }
+
+    private String verifyTotals(double actualPrice, double actualDiscount) {
+        if (!matches(actualPrice, totalPrice.value())) {
+            return String.format("total_price %s differs from expected %s", actualPrice, totalPrice.value());
+        }
+        if (!matches(actualDiscount, totalDiscount.value())) {
+            return String.format("total_discount %s differs from expected %s", actualDiscount, totalDiscount.value());
+        }
+        return null;
+    }
+
+    private boolean matches(double actual, double expected) {
+        return Math.abs(actual - expected) <= Math.max(tolerance, Math.abs(expected) * RELATIVE_TOLERANCE);
+    }
+
+    /**
+     * Очищает модель перед перестройкой по ответу сервера и снимает пометку {@link #markUnknown()}.
+     */
+    private void reset() {
+        lines.clear();
+        totalPrice.reset();
+        totalDiscount.reset();
+        quantity = 0;
+        unknown = false;
+    }
+
+    public synchronized double getExpectedTotalPrice() {
+        return totalPrice.value();
+    }
+
+    public synchronized double getExpectedTotalDiscount() {
+        return totalDiscount.value();
+    }
+
+    public synchronized int getLineCount() {
+        return lines.size();
+    }
+
+    private static final class Line {
+        final double price;
+        final double discount;
+        int quantity;
+
+        Line(double price, double discount) {
+            this.price = price;
+            this.discount = discount;
+        }
+    }
+
+    /**
+     * Сумма с компенсацией ошибки округления (алгоритм Неймайера).
+     */
+    private static final class CompensatedSum {
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            double next = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - next) + value;
+            } else {
+                compensation += (value - next) + sum;
+            }
+            sum = next;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+
+        void reset() {
+            sum = 0;
+            compensation = 0;
+        }
+    }
+}
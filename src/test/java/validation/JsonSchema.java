@@ -0,0 +1,367 @@
+package validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON Schema, один раз скомпилированная в дерево проверок и применяемая к телу ответа за один потоковый проход
+ * {@link JsonParser} без построения дерева и без привязки к классам модели. Экземпляр неизменяем и потокобезопасен.
+ * <p>
+ * Поддерживается подмножество draft-07, достаточное для контрактов API: {@code type} (строка или массив),
+ * {@code properties}, {@code required}, {@code additionalProperties} (boolean), {@code items}, {@code minItems},
+ * {@code minimum}, {@code maximum}, {@code exclusiveMinimum}, {@code minLength} и {@code $ref} на файл схемы
+ * рядом с текущим. Остальные ключевые слова, кроме аннотаций ({@code $schema}, {@code title}, {@code description}),
+ * отклоняются при компиляции, чтобы схема не теряла проверки молча.
+ */
+public final class JsonSchema {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 1 << 1;
+    private static final int STRING = 1 << 2;
+    private static final int NUMBER = 1 << 3;
+    private static final int INTEGER = 1 << 4;
+    private static final int BOOLEAN = 1 << 5;
+    private static final int NULL = 1 << 6;
+    private static final int ANY = OBJECT | ARRAY | STRING | NUMBER | INTEGER | BOOLEAN | NULL;
+    private static final String[] TYPE_NAMES = {"object", "array", "string", "number", "integer", "boolean", "null"};
+
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "$id", "title", "description");
+    /** Ограничение битовой маски, которой отмечаются встреченные обязательные поля объекта. */
+    private static final int MAX_REQUIRED = Long.SIZE;
+
+    private final String name;
+    private final Node root;
+
+    private JsonSchema(String name, Node root) {
+        this.name = name;
+        this.root = root;
+    }
+
+    /**
+     * Загружает и компилирует схему из ресурса classpath, например {@code "schemas/product.json"}.
+     *
+     * @throws IllegalArgumentException если ресурс не найден или схема использует неподдерживаемые ключевые слова.
+     */
+    public static JsonSchema load(String resource) {
+        return new JsonSchema(resource, new Compiler().compileResource(resource));
+    }
+
+    /**
+     * Проверяет JSON документ на соответствие схеме.
+     *
+     * @return Описание первого нарушения с JSON Pointer на проблемное значение или {@code null}, если документ корректен.
+     */
+    public String validate(byte[] body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return validate(parser);
+        } catch (JsonProcessingException e) {
+            return name + ": malformed JSON: " + e.getOriginalMessage();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Вариант {@link #validate(byte[])} для потока; поток не закрывается.
+     */
+    public String validate(InputStream body) {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return validate(parser);
+        } catch (JsonProcessingException e) {
+            return name + ": malformed JSON: " + e.getOriginalMessage();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String validate(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            return name + ": empty document";
+        }
+        String violation = check(parser, root);
+        if (violation == null && parser.nextToken() != null) {
+            violation = "trailing content after the document";
+        }
+        return violation == null ? null : name + ": " + violation;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static String check(JsonParser parser, Node node) throws IOException {
+        JsonToken token = parser.currentToken();
+        int type = typeOf(token);
+        if ((node.types & type) == 0 && !(type == INTEGER && (node.types & NUMBER) != 0)) {
+            return violation(parser, "expected " + typeNames(node.types) + " but was " + typeNames(type));
+        }
+        switch (token) {
+            case START_OBJECT:
+                return checkObject(parser, node);
+            case START_ARRAY:
+                return checkArray(parser, node);
+            case VALUE_STRING:
+                if (parser.getTextLength() < node.minLength) {
+                    return violation(parser, "string shorter than " + node.minLength);
+                }
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                if (node.hasBounds) {
+                    double value = parser.getDoubleValue();
+                    if (value < node.minimum || value <= node.exclusiveMinimum || value > node.maximum) {
+                        return violation(parser, "number " + parser.getText() + " out of range " + node.describeBounds());
+                    }
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private static String checkObject(JsonParser parser, Node node) throws IOException {
+        long seen = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            Node property = node.properties.get(field);
+            if (property == null) {
+                if (!node.additionalProperties) {
+                    return violation(parser, "unexpected property");
+                }
+                parser.skipChildren();
+                continue;
+            }
+            String violation = check(parser, property);
+            if (violation != null) {
+                return violation;
+            }
+            Integer requiredIndex = node.requiredIndex.get(field);
+            if (requiredIndex != null) {
+                seen |= 1L << requiredIndex;
+            }
+        }
+        if (seen != node.requiredMask) {
+            for (int i = 0; i < node.required.length; i++) {
+                if ((seen & 1L << i) == 0) {
+                    return violation(parser, "missing required property \"" + node.required[i] + "\"");
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String checkArray(JsonParser parser, Node node) throws IOException {
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (node.items == null) {
+                parser.skipChildren();
+            } else {
+                String violation = check(parser, node.items);
+                if (violation != null) {
+                    return violation;
+                }
+            }
+            count++;
+        }
+        if (count < node.minItems) {
+            return violation(parser, "array has " + count + " items, expected at least " + node.minItems);
+        }
+        return null;
+    }
+
+    /**
+     * Формирует сообщение с JSON Pointer на текущее значение. На открывающей скобке объекта или массива контекст
+     * парсера уже относится к их содержимому, поэтому путь берется у родительского контекста.
+     */
+    private static String violation(JsonParser parser, String message) {
+        JsonStreamContext context = parser.getParsingContext();
+        if (parser.currentToken().isStructStart() && context.getParent() != null) {
+            context = context.getParent();
+        }
+        String pointer = context.pathAsPointer().toString();
+        return (pointer.isEmpty() ? "/" : pointer) + ": " + message;
+    }
+
+    private static int typeOf(JsonToken token) {
+        return switch (token) {
+            case START_OBJECT -> OBJECT;
+            case START_ARRAY -> ARRAY;
+            case VALUE_STRING -> STRING;
+            case VALUE_NUMBER_INT -> INTEGER;
+            case VALUE_NUMBER_FLOAT -> NUMBER;
+            case VALUE_TRUE, VALUE_FALSE -> BOOLEAN;
+            case VALUE_NULL -> NULL;
+            default -> throw new IllegalStateException("Unexpected token " + token);
+        };
+    }
+
+    private static String typeNames(int types) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            if ((types & 1 << i) != 0) {
+                names.add(TYPE_NAMES[i]);
+            }
+        }
+        return String.join("|", names);
+    }
+
+    /**
+     * Скомпилированный узел схемы. Поля заполняются компилятором и после {@link #load} не меняются;
+     * узел файла, на который ссылаются несколько {@code $ref}, компилируется один раз и разделяется.
+     */
+    private static final class Node {
+        int types = ANY;
+        Map<String, Node> properties = Map.of();
+        boolean additionalProperties = true;
+        String[] required = new String[0];
+        Map<String, Integer> requiredIndex = Map.of();
+        long requiredMask;
+        Node items;
+        int minItems;
+        int minLength;
+        boolean hasBounds;
+        double minimum = Double.NEGATIVE_INFINITY;
+        double maximum = Double.POSITIVE_INFINITY;
+        double exclusiveMinimum = Double.NEGATIVE_INFINITY;
+
+        /** Диапазон с более строгой из нижних границ {@code minimum} и {@code exclusiveMinimum}. */
+        String describeBounds() {
+            return (exclusiveMinimum >= minimum ? "(" + exclusiveMinimum : "[" + minimum) + ", " + maximum + "]";
+        }
+    }
+
+    private static final class Compiler {
+        private final Map<String, Node> compiled = new HashMap<>();
+        private final Set<String> inProgress = new HashSet<>();
+
+        Node compileResource(String resource) {
+            Node node = compiled.get(resource);
+            if (node != null) {
+                return node;
+            }
+            if (!inProgress.add(resource)) {
+                throw new IllegalArgumentException("Recursive $ref is not supported: " + resource);
+            }
+            JsonNode schema;
+            try (InputStream in = JsonSchema.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Schema resource not found: " + resource);
+                }
+                schema = MAPPER.readTree(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read schema " + resource, e);
+            }
+            node = compile(schema, resource);
+            inProgress.remove(resource);
+            compiled.put(resource, node);
+            return node;
+        }
+
+        private Node compile(JsonNode schema, String resource) {
+            if (!schema.isObject()) {
+                throw new IllegalArgumentException(resource + ": schema must be an object, got " + schema);
+            }
+            if (schema.has("$ref")) {
+                String ref = schema.get("$ref").asText();
+                int slash = resource.lastIndexOf('/');
+                return compileResource(slash < 0 ? ref : resource.substring(0, slash + 1) + ref);
+            }
+            Node node = new Node();
+            for (Iterator<Map.Entry<String, JsonNode>> fields = schema.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                switch (field.getKey()) {
+                    case "type" -> node.types = compileTypes(value, resource);
+                    case "properties" -> {
+                        Map<String, Node> properties = new HashMap<>();
+                        value.fields().forEachRemaining(property -> properties.put(property.getKey(),
+                                compile(property.getValue(), resource)));
+                        node.properties = properties;
+                    }
+                    case "additionalProperties" -> {
+                        if (!value.isBoolean()) {
+                            throw new IllegalArgumentException(resource + ": only boolean additionalProperties is supported");
+                        }
+                        node.additionalProperties = value.booleanValue();
+                    }
+                    case "required" -> {
+                        if (value.size() > MAX_REQUIRED) {
+                            throw new IllegalArgumentException(resource + ": at most " + MAX_REQUIRED + " required properties are supported");
+                        }
+                        node.required = new String[value.size()];
+                        Map<String, Integer> index = new HashMap<>();
+                        for (int i = 0; i < value.size(); i++) {
+                            node.required[i] = value.get(i).asText();
+                            index.put(node.required[i], i);
+                        }
+                        node.requiredIndex = index;
+                        node.requiredMask = value.size() == Long.SIZE ? -1L : (1L << value.size()) - 1;
+                    }
+                    case "items" -> node.items = compile(value, resource);
+                    case "minItems" -> node.minItems = value.asInt();
+                    case "minLength" -> node.minLength = value.asInt();
+                    case "minimum" -> {
+                        node.minimum = value.asDouble();
+                        node.hasBounds = true;
+                    }
+                    case "maximum" -> {
+                        node.maximum = value.asDouble();
+                        node.hasBounds = true;
+                    }
+                    case "exclusiveMinimum" -> {
+                        node.exclusiveMinimum = value.asDouble();
+                        node.hasBounds = true;
+                    }
+                    default -> {
+                        if (!ANNOTATIONS.contains(field.getKey())) {
+                            throw new IllegalArgumentException(resource + ": unsupported keyword " + field.getKey());
+                        }
+                    }
+                }
+            }
+            // Обязательное поле без описания в properties все равно должно отмечаться как встреченное
+            for (String required : node.required) {
+                if (!node.properties.containsKey(required)) {
+                    Map<String, Node> properties = new HashMap<>(node.properties);
+                    properties.put(required, new Node());
+                    node.properties = properties;
+                }
+            }
+            return node;
+        }
+
+        private static int compileTypes(JsonNode value, String resource) {
+            int types = 0;
+            for (JsonNode type : value.isArray() ? value : List.of(value)) {
+                int index = List.of(TYPE_NAMES).indexOf(type.asText());
+                if (index < 0) {
+                    throw new IllegalArgumentException(resource + ": unknown type " + type);
+                }
+                types |= 1 << index;
+            }
+            return types;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import model.Product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Потоковая проверка JSON массива продуктов (ответ {@code GET /products}) без построения дерева и полного списка.
+ * Массив обходится токен за токеном через {@link JsonParser}; для каждого элемента проверяется, что
+ * id положительный, name и category непустые, price больше нуля, discount не отрицательный.
+ * В памяти сохраняются только первые {@code collectFirst} продуктов, поэтому расход памяти не зависит от размера каталога.
+ * Обход прекращается на первом нарушении или после {@code maxElements} элементов.
+ */
+public class ProductStreamValidator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final int maxElements;
+    private final int collectFirst;
+
+    /**
+     * @param maxElements Максимальное число проверяемых элементов; {@link Integer#MAX_VALUE} — проверить весь массив.
+     * @param collectFirst Сколько первых продуктов сохранить в результате для дальнейших проверок.
+     */
+    public ProductStreamValidator(int maxElements, int collectFirst) {
+        if (maxElements <= 0 || collectFirst < 0) {
+            throw new IllegalArgumentException("maxElements must be positive and collectFirst must not be negative");
+        }
+        this.maxElements = maxElements;
+        this.collectFirst = collectFirst;
+    }
+
+    /**
+     * Проверяет JSON массив продуктов из потока.
+     *
+     * @param body Тело ответа; поток не закрывается.
+     * @return Результат проверки с числом просмотренных элементов, первыми продуктами и первым нарушением.
+     * @throws IOException если тело не является корректным JSON массивом объектов.
+     */
+    public Result validate(InputStream body) throws IOException {
+        List<Product> products = new ArrayList<>(Math.min(collectFirst, 1024));
+        int count = 0;
+        String violation = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of products");
+            }
+            while (count < maxElements && parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a product object at index " + count);
+                }
+                int id = 0;
+                String name = null;
+                String category = null;
+                double price = 0;
+                double discount = 0;
+                int quantity = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "id" -> id = parser.getValueAsInt();
+                        case "name" -> name = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                        case "category" -> category = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                        case "price" -> price = parser.getValueAsDouble();
+                        case "discount" -> discount = parser.getValueAsDouble();
+                        case "quantity" -> quantity = parser.getValueAsInt();
+                        default -> parser.skipChildren();
+                    }
+                }
+
+                violation = check(count, id, name, category, price, discount);
+                if (count < collectFirst) {
+                    products.add(new Product(id, name, category, price, discount, quantity));
+                }
+                count++;
+                if (violation != null) {
+                    break;
+                }
+            }
+        }
+        return new Result(count, products, violation);
+    }
+
+    private static String check(int index, int id, String name, String category, double price, double discount) {
+        if (id <= 0) {
+            return "Product at index " + index + " has non-positive id " + id;
+        }
+        if (name == null || name.isEmpty()) {
+            return "Product " + id + " has empty name";
+        }
+        if (category == null || category.isEmpty()) {
+            return "Product " + id + " has empty category";
+        }
+        if (!(price > 0)) {
+            return "Product " + id + " has non-positive price " + price;
+        }
+        if (!(discount >= 0)) {
+            return "Product " + id + " has negative discount " + discount;
+        }
+        return null;
+    }
+
+    /**
+     * Результат потоковой проверки.
+     */
+    public static class Result {
+        private final int count;
+        private final List<Product> products;
+        private final String violation;
+
+        Result(int count, List<Product> products, String violation) {
+            this.count = count;
+            this.products = Collections.unmodifiableList(products);
+            this.violation = violation;
+        }
+
+        /** Число просмотренных элементов массива. */
+        public int getCount() {
+            return count;
+        }
+
+        /** Первые сохраненные продукты в порядке следования в ответе. */
+        public List<Product> getProducts() {
+            return products;
+        }
+
+        /** Описание первого нарушения или {@code null}, если все просмотренные элементы корректны. */
+        public String getViolation() {
+            return violation;
+        }
+    }
+}
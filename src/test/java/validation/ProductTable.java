@@ -0,0 +1,355 @@
+package validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import model.Product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Колоночное представление списка продуктов для проверок на больших ответах.
+ * Вместо {@code List<Product>} значения хранятся в примитивных массивах: id, цена, скидка, количество,
+ * а категории — кодами в словаре строк (категорий немного, продуктов — сотни тысяч). Названия не сохраняются,
+ * при разборе только проверяется, что они непустые. Таблица заполняется напрямую из потока токенов {@link JsonParser},
+ * без промежуточных объектов на каждый элемент, поэтому на 100k продуктов занимает единицы мегабайт
+ * и почти не нагружает GC.
+ * <p>
+ * Массовые проверки — простые циклы по массивам без ветвлений в теле, которые JIT разворачивает и, где позволяет
+ * семантика double, векторизует.
+ */
+public class ProductTable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_CAPACITY = 64;
+    /** До какого размера словаря категория ищется перебором без создания строки. */
+    private static final int LINEAR_LOOKUP_LIMIT = 32;
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] discounts = new double[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int[] categoryCodes = new int[INITIAL_CAPACITY];
+    private int blankNames;
+    private int firstBlankName = -1;
+
+    private String[] categories = new String[8];
+    private final Map<String, Integer> categoryIndex = new HashMap<>();
+
+    /**
+     * Читает JSON массив продуктов (ответ {@code GET /products}).
+     *
+     * @param body Тело ответа; поток не закрывается.
+     * @throws IOException если тело не является JSON массивом объектов.
+     */
+    public static ProductTable readList(InputStream body) throws IOException {
+        ProductTable table = new ProductTable();
+        try (JsonParser parser = createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of products");
+            }
+            table.readElements(parser);
+        }
+        return table;
+    }
+
+    /**
+     * Читает ответ {@code GET /cart}: массив {@code cart} и итоги {@code total_price}, {@code total_discount}.
+     *
+     * @param body Тело ответа; поток не закрывается.
+     * @throws IOException если тело не является JSON объектом корзины.
+     */
+    public static Cart readCart(InputStream body) throws IOException {
+        ProductTable table = new ProductTable();
+        double totalPrice = Double.NaN;
+        double totalDiscount = Double.NaN;
+        try (JsonParser parser = createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object with a cart");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "cart" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            throw new IOException("Expected cart to be a JSON array");
+                        }
+                        table.readElements(parser);
+                    }
+                    case "total_price" -> totalPrice = parser.getValueAsDouble();
+                    case "total_discount" -> totalDiscount = parser.getValueAsDouble();
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new Cart(table, totalPrice, totalDiscount);
+    }
+
+    private static JsonParser createParser(InputStream body) throws IOException {
+        JsonParser parser = JSON_FACTORY.createParser(body);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return parser;
+    }
+
+    private void readElements(JsonParser parser) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a product object at index " + size);
+            }
+            if (size == ids.length) {
+                grow();
+            }
+            int index = size++;
+            boolean blankName = true;
+            int categoryCode = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> ids[index] = parser.getValueAsInt();
+                    case "name" -> blankName = value == JsonToken.VALUE_NULL || parser.getTextLength() == 0;
+                    case "category" -> categoryCode = value == JsonToken.VALUE_NULL ? -1 : encodeCategory(parser);
+                    case "price" -> prices[index] = parser.getValueAsDouble();
+                    case "discount" -> discounts[index] = parser.getValueAsDouble();
+                    case "quantity" -> quantities[index] = parser.getValueAsInt();
+                    default -> parser.skipChildren();
+                }
+            }
+            categoryCodes[index] = categoryCode;
+            if (blankName) {
+                if (blankNames++ == 0) {
+                    firstBlankName = index;
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает код категории текущего токена. Пока словарь мал, ищет категорию прямо в буфере парсера,
+     * не создавая строку на каждый продукт.
+     */
+    private int encodeCategory(JsonParser parser) throws IOException {
+        int dictionarySize = categoryIndex.size();
+        if (dictionarySize <= LINEAR_LOOKUP_LIMIT) {
+            char[] text = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+            for (int code = 0; code < dictionarySize; code++) {
+                if (matches(categories[code], text, offset, length)) {
+                    return code;
+                }
+            }
+        }
+        return encodeCategory(parser.getText());
+    }
+
+    private static boolean matches(String category, char[] text, int offset, int length) {
+        if (category.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (category.charAt(i) != text[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int encodeCategory(String category) {
+        Integer code = categoryIndex.get(category);
+        if (code == null) {
+            code = categoryIndex.size();
+            if (code == categories.length) {
+                categories = Arrays.copyOf(categories, code * 2);
+            }
+            categories[code] = category;
+            categoryIndex.put(category, code);
+        }
+        return code;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        discounts = Arrays.copyOf(discounts, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int id(int index) {
+        return ids[checkIndex(index)];
+    }
+
+    public double price(int index) {
+        return prices[checkIndex(index)];
+    }
+
+    public double discount(int index) {
+        return discounts[checkIndex(index)];
+    }
+
+    public int quantity(int index) {
+        return quantities[checkIndex(index)];
+    }
+
+    /**
+     * @return Категория продукта или {@code null}, если она не задана.
+     */
+    public String category(int index) {
+        int code = categoryCodes[checkIndex(index)];
+        return code < 0 ? null : categories[code];
+    }
+
+    /**
+     * Число различных категорий в таблице.
+     */
+    public int categoryCount() {
+        return categoryIndex.size();
+    }
+
+    /**
+     * Собирает {@link Product} по строке таблицы — для сообщений об ошибках. Название не хранится и остается {@code null}.
+     */
+    public Product product(int index) {
+        return new Product(id(index), null, category(index), price(index), discount(index), quantity(index));
+    }
+
+    public boolean allIdsPositive() {
+        boolean positive = true;
+        for (int i = 0; i < size; i++) {
+            positive &= ids[i] > 0;
+        }
+        return positive;
+    }
+
+    public boolean allPricesPositive() {
+        boolean positive = true;
+        for (int i = 0; i < size; i++) {
+            positive &= prices[i] > 0;
+        }
+        return positive;
+    }
+
+    public boolean allDiscountsNonNegative() {
+        boolean nonNegative = true;
+        for (int i = 0; i < size; i++) {
+            nonNegative &= discounts[i] >= 0;
+        }
+        return nonNegative;
+    }
+
+    public boolean allQuantitiesPositive() {
+        boolean positive = true;
+        for (int i = 0; i < size; i++) {
+            positive &= quantities[i] > 0;
+        }
+        return positive;
+    }
+
+    public boolean allNamesPresent() {
+        return blankNames == 0;
+    }
+
+    public boolean allCategoriesPresent() {
+        boolean present = true;
+        for (int i = 0; i < size; i++) {
+            present &= categoryCodes[i] >= 0;
+        }
+        return present;
+    }
+
+    /**
+     * Сумма {@code price * quantity} по всем строкам.
+     */
+    public double sumPriceTimesQuantity() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += prices[i] * quantities[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Сумма скидок {@code price * discount / 100 * quantity} по всем строкам; скидка задана в процентах.
+     */
+    public double sumDiscountTimesQuantity() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += prices[i] * discounts[i] * quantities[i];
+        }
+        return sum / 100;
+    }
+
+    /**
+     * Индекс первой строки с некорректным продуктом (неположительные id, цена или количество, отрицательная скидка,
+     * пустые название или категория) или {@code -1}. Для сообщений об ошибке после провала массовой проверки.
+     */
+    public int indexOfFirstInvalid() {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] <= 0 || !(prices[i] > 0) || !(discounts[i] >= 0) || quantities[i] <= 0 || categoryCodes[i] < 0
+                    || i == firstBlankName) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    /**
+     * Содержимое корзины вместе с итогами, которые вернул сервер.
+     */
+    public static class Cart {
+        private final ProductTable lines;
+        private final double totalPrice;
+        private final double totalDiscount;
+
+        Cart(ProductTable lines, double totalPrice, double totalDiscount) {
+            this.lines = lines;
+            this.totalPrice = totalPrice;
+            this.totalDiscount = totalDiscount;
+        }
+
+        public ProductTable getLines() {
+            return lines;
+        }
+
+        /** Значение {@code total_price} из ответа или {@link Double#NaN}, если поля нет. */
+        public double getTotalPrice() {
+            return totalPrice;
+        }
+
+        /** Значение {@code total_discount} из ответа или {@link Double#NaN}, если поля нет. */
+        public double getTotalDiscount() {
+            return totalDiscount;
+        }
+
+        /**
+         * Проверяет, что {@code total_price} равен {@code sum(price * quantity)} с точностью {@code tolerance}.
+         */
+        public boolean totalPriceMatches(double tolerance) {
+            return Math.abs(lines.sumPriceTimesQuantity() - totalPrice) <= tolerance;
+        }
+
+        /**
+         * Проверяет, что {@code total_discount} равен сумме скидок по строкам с точностью {@code tolerance}.
+         */
+        public boolean totalDiscountMatches(double tolerance) {
+            return Math.abs(lines.sumDiscountTimesQuantity() - totalDiscount) <= tolerance;
+        }
+    }
+}
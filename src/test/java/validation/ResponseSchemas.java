@@ -0,0 +1,34 @@
+package validation;
+
+import load.LatencyStats;
+
+import java.util.Map;
+
+/**
+ * Контракты ответов API: схемы из {@code src/test/resources/schemas}, скомпилированные один раз на JVM.
+ * Сопоставляет эндпоинт ({@code "GET /products/{id}"}) со схемой его успешного ответа.
+ */
+public final class ResponseSchemas {
+
+    public static final JsonSchema PRODUCT = JsonSchema.load("schemas/product.json");
+    public static final JsonSchema PRODUCT_LIST = JsonSchema.load("schemas/product-list.json");
+    public static final JsonSchema CART = JsonSchema.load("schemas/cart.json");
+    public static final JsonSchema LOGIN = JsonSchema.load("schemas/login.json");
+
+    // GET /products/{id} отвечает массивом из одного продукта
+    private static final Map<String, JsonSchema> BY_ENDPOINT = Map.of(
+            "GET /products", PRODUCT_LIST,
+            "GET /products/{id}", PRODUCT_LIST,
+            "GET /cart", CART,
+            "POST /login", LOGIN);
+
+    private ResponseSchemas() {
+    }
+
+    /**
+     * @return Схема успешного ответа на запрос {@code method path} или {@code null}, если контракт не описан.
+     */
+    public static JsonSchema forRequest(String method, String path) {
+        return BY_ENDPOINT.get(method + " " + LatencyStats.endpointOf(path));
+    }
+}